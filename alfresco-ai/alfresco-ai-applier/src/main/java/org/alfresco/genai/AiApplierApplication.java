@@ -2,6 +2,8 @@ package org.alfresco.genai;
 
 import org.alfresco.genai.action.AiApplierAction;
 import org.alfresco.genai.action.AiApplierActionFactory;
+import org.alfresco.genai.service.DeadLetterStore;
+import org.alfresco.genai.service.ScratchSpace;
 import org.alfresco.search.handler.SearchApi;
 import org.alfresco.search.model.*;
 import org.slf4j.Logger;
@@ -13,10 +15,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * The main class for the AI Applier application, {@code AiApplierApplication},
@@ -66,6 +74,30 @@ public class AiApplierApplication implements CommandLineRunner {
     @Autowired
     SearchApi searchApi;
 
+    /**
+     * Seconds to keep the metrics endpoint available once all the documents have been processed
+     */
+    @Value("${applier.metrics.linger}")
+    long metricsLinger;
+
+    /**
+     * Replay the documents recorded as dead letters instead of searching the root folder
+     */
+    @Value("${applier.replay.dead.letters}")
+    boolean replayDeadLetters;
+
+    /**
+     * Store of the documents that could not be processed
+     */
+    @Autowired
+    DeadLetterStore deadLetterStore;
+
+    /**
+     * Scratch space holding the temporary files downloaded for every document
+     */
+    @Autowired
+    ScratchSpace scratchSpace;
+
     /**
      * List to keep track of updated document nodes to avoid redundant updates
      */
@@ -73,13 +105,58 @@ public class AiApplierApplication implements CommandLineRunner {
 
     /**
      * Runs the application logic to summarize or classify documents. Retrieves documents from the search API, checks for PDF
-     * renditions, and updates document nodes with response from GenAI.
+     * renditions, and updates document nodes with response from GenAI. When replaying dead letters, only the documents
+     * that could not be processed by previous executions are retrieved.
      */
     @Override
-    public void run(String... args) {
+    public void run(String... args) throws IOException {
 
         AiApplierAction action = aiApplierActionFactory.getAiApplierAction(actionName);
 
+        if (replayDeadLetters) {
+            replay(action);
+        } else {
+            applyToFolder(action);
+        }
+
+        // Keep the metrics endpoint available for a final scrape
+        if (metricsLinger > 0) {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(metricsLinger));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+    /**
+     * Applies the action to the documents recorded as dead letters for the action. Documents failing again are
+     * recorded back as dead letters.
+     *
+     * @param action The action to be applied.
+     * @throws IOException If the dead letter file cannot be read or written.
+     */
+    void replay(AiApplierAction action) throws IOException {
+
+        List<String> uuids = deadLetterStore.claim(actionName.name());
+        LOG.info("Replaying {} dead letters", uuids.size());
+
+        CompletableFuture.allOf(uuids.parallelStream()
+                .map((uuid) -> apply(action, new ResultSetRowEntry().entry(new ResultNode().id(uuid).name(uuid))))
+                .toArray(CompletableFuture[]::new)).join();
+
+        LOG.info("END: All dead letters have been replayed.");
+
+    }
+
+    /**
+     * Applies the action to the documents of the root folder that have not been updated yet.
+     *
+     * @param action The action to be applied.
+     */
+    void applyToFolder(AiApplierAction action) {
+
         RequestSortDefinition sortDefinition = new RequestSortDefinition();
         sortDefinition.add(new RequestSortDefinitionInner()
                 .type(RequestSortDefinitionInner.TypeEnum.FIELD)
@@ -106,23 +183,28 @@ public class AiApplierApplication implements CommandLineRunner {
 
             Instant start = Instant.now();
 
-            results.getBody().getList().getEntries().parallelStream().forEach((entry) -> {
-
-                String uuid = entry.getEntry().getId();
-
-                // Fix SOLR latency to catch up with node updates in Repository
-                if (!updatedNodes.contains(uuid)) {
-                    if (action.execute(entry)) {
-                        updatedNodes.add(uuid);
-                    }
+            // Contents are retrieved in parallel, while every GenAI request of the page is kept in flight
+            Map<String, CompletableFuture<Boolean>> pending = results.getBody().getList().getEntries().parallelStream()
+                    // Fix SOLR latency to catch up with node updates in Repository
+                    // Skip documents recorded as dead letters, they are processed again when replaying dead letters
+                    .filter((entry) -> !updatedNodes.contains(entry.getEntry().getId())
+                            && !deadLetterStore.contains(entry.getEntry().getId()))
+                    .collect(Collectors.toMap((entry) -> entry.getEntry().getId(), (entry) -> apply(action, entry),
+                            (first, second) -> first, LinkedHashMap::new));
+
+            pending.forEach((uuid, updated) -> {
+                if (updated.join()) {
+                    updatedNodes.add(uuid);
                 }
-
             });
 
             Instant finish = Instant.now();
             LOG.debug(">> {} seconds spent in this iteration", Duration.between(start, finish).toSeconds());
 
-            hasMoreItems = results.getBody().getList().getPagination().isHasMoreItems();
+            // Stop when the remaining documents could not be processed, since the search would return them again
+            hasMoreItems = results.getBody().getList().getPagination().isHasMoreItems() &&
+                    !results.getBody().getList().getEntries().stream()
+                            .allMatch(entry -> deadLetterStore.contains(entry.getEntry().getId()));
 
         } while (hasMoreItems);
 
@@ -130,8 +212,33 @@ public class AiApplierApplication implements CommandLineRunner {
 
     }
 
+    /**
+     * Starts the action on a document within a {@link ScratchSpace} scope. The scope is detached from the calling
+     * thread once the content has been retrieved, and it is closed when the action completes, so the temporary files
+     * downloaded for the document are deleted whether the action succeeded or failed.
+     *
+     * @param action The action to be applied.
+     * @param entry  The entry representing the document.
+     * @return A future completed with {@code true} if the action was successful; otherwise, with {@code false}.
+     */
+    CompletableFuture<Boolean> apply(AiApplierAction action, ResultSetRowEntry entry) {
+        ScratchSpace.Scope scope = scratchSpace.open();
+        try {
+            return action.executeAsync(entry).whenComplete((updated, failure) -> scope.close());
+        } catch (RuntimeException e) {
+            scope.close();
+            throw e;
+        } finally {
+            scope.detach();
+        }
+    }
+
+    /**
+     * Runs the application and exits once the documents have been processed, stopping the embedded web server that
+     * exposes the metrics endpoint.
+     */
     public static void main(String[] args) {
-        SpringApplication.run(AiApplierApplication.class, args);
+        System.exit(SpringApplication.exit(SpringApplication.run(AiApplierApplication.class, args)));
     }
 
 }
@@ -2,6 +2,8 @@ package org.alfresco.genai.action;
 
 import org.alfresco.search.model.ResultSetRowEntry;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code AiApplierAction} interface defines the contract for various AI actions
  * that can be performed on Alfresco documents in the AI Applier application.
@@ -21,7 +23,20 @@ public interface AiApplierAction {
      * @param entry The entry representing an Alfresco document for the AI action.
      * @return {@code true} if the document was successfully updated; otherwise, {@code false}.
      */
-    boolean execute(ResultSetRowEntry entry);
+    default boolean execute(ResultSetRowEntry entry) {
+        return executeAsync(entry).join();
+    }
+
+    /**
+     * Starts the specified AI action on the given {@code ResultSetRowEntry} without waiting for the GenAI service. The
+     * content of the document is retrieved by the calling thread, while the GenAI request runs in the background and the
+     * document is updated on the executor of the {@code NodeUpdateService}.
+     *
+     * @param entry The entry representing an Alfresco document for the AI action.
+     * @return A future completed with {@code true} if the document was successfully updated; otherwise, with
+     *         {@code false}. The future is never completed exceptionally.
+     */
+    CompletableFuture<Boolean> executeAsync(ResultSetRowEntry entry);
 
     /**
      * Retrieves the field associated with the update performed by the AI action.
@@ -1,9 +1,15 @@
 package org.alfresco.genai.action;
 
-import org.alfresco.core.handler.NodesApi;
+import org.alfresco.genai.metrics.PipelineMetrics;
+import org.alfresco.genai.model.Description;
+import org.alfresco.genai.service.ContentService;
+import org.alfresco.genai.service.ContentStream;
+import org.alfresco.genai.service.DeadLetterStore;
 import org.alfresco.genai.service.GenAiClient;
 import org.alfresco.genai.service.NodeUpdateService;
+import org.alfresco.genai.service.PictureDownscaler;
 import org.alfresco.genai.service.RenditionService;
+import org.alfresco.genai.service.RetryPolicy;
 import org.alfresco.search.model.ResultSetRowEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +19,10 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.alfresco.genai.metrics.PipelineMetrics.*;
 
 /**
  * The {@code AiApplierDescription} class is a Spring component that implements the {@link AiApplierAction} interface
@@ -24,12 +33,24 @@ public class AiApplierDescription implements AiApplierAction {
 
     static final Logger LOG = LoggerFactory.getLogger(AiApplierDescription.class);
 
+    /**
+     * Value of the task tag of the metrics recorded by the action.
+     */
+    static final String TASK = "describe";
+
     /**
      * The property name for storing the picture description in the Alfresco repository obtained from configuration.
      */
     @Value("${content.service.description.description.property}")
     String descriptionProperty;
 
+    /**
+     * Whether contents are piped from the Alfresco Repository to the GenAI service instead of being downloaded to
+     * temporary files obtained from configuration.
+     */
+    @Value("${genai.streaming.enabled}")
+    boolean streamingEnabled;
+
     /**
      * Http client for interacting with the GenAI service
      */
@@ -48,38 +69,89 @@ public class AiApplierDescription implements AiApplierAction {
     @Autowired
     NodeUpdateService nodeUpdateService;
 
+    /**
+     * Autowired instance of {@link PipelineMetrics} for recording the duration of every stage and the task results.
+     */
+    @Autowired
+    PipelineMetrics pipelineMetrics;
+
+    /**
+     * Autowired instance of {@link RetryPolicy} for retrying GenAI requests failed with a transient error.
+     */
+    @Autowired
+    RetryPolicy retryPolicy;
+
+    /**
+     * Autowired instance of {@link DeadLetterStore} for recording the documents that could not be processed.
+     */
+    @Autowired
+    DeadLetterStore deadLetterStore;
+
+    /**
+     * Autowired instance of {@link ContentService} for streaming picture content to disk.
+     */
+    @Autowired
+    ContentService contentService;
+
+    /**
+     * Autowired instance of {@link PictureDownscaler} for reducing the pictures before describing them.
+     */
     @Autowired
-    NodesApi nodesApi;
+    PictureDownscaler pictureDownscaler;
 
     /**
-     * Executes the picture description action on the given {@code ResultSetRowEntry}.
+     * Starts the picture description action on the given {@code ResultSetRowEntry}. The picture is retrieved by the
+     * calling thread, while the description is requested to the GenAI service without blocking. When
+     * {@link PictureDownscaler} is enabled, the picture is downloaded to a temporary file and downscaled by the calling
+     * thread even when streaming is enabled.
      *
      * @param entry The entry representing an Alfresco picture for description.
-     * @return {@code true} if the description was successful; otherwise, {@code false}.
-     * @throws RuntimeException If an error occurs during description, such as IO exception.
+     * @return A future completed with {@code true} if the description was successful; otherwise, {@code false}.
      */
     @Override
-    public boolean execute(ResultSetRowEntry entry) {
+    public CompletableFuture<Boolean> executeAsync(ResultSetRowEntry entry) {
 
         String uuid = entry.getEntry().getId();
 
         LOG.debug("Describing picture {} ({})", entry.getEntry().getName(), uuid);
 
+        CompletableFuture<Description> description;
         try {
 
-            byte[] fileContent = nodesApi.getNodeContent(uuid, true, null, null).getBody().getContentAsByteArray();
-            File pictureFile = Files.createTempFile(null, null).toFile();
-            Files.write(pictureFile.toPath(), fileContent);
+            if (streamingEnabled && !pictureDownscaler.isEnabled()) {
+                description = retryPolicy.callAsync(() -> {
+                    ContentStream pictureStream = pipelineMetrics.time(CONTENT_DOWNLOAD, TASK, () -> contentService.openNodeContent(uuid));
+                    pipelineMetrics.recordPayload(CONTENT_DOWNLOAD, TASK, pictureStream.getContentLength());
+                    return genAiClient.getDescriptionAsync(pictureStream).whenComplete((result, failure) -> pictureStream.close());
+                });
+            } else {
+                File pictureFile = pipelineMetrics.time(CONTENT_DOWNLOAD, TASK, () -> contentService.getNodeContent(uuid));
+                pipelineMetrics.recordPayload(CONTENT_DOWNLOAD, TASK, pictureFile.length());
+                File uploadFile = pictureFile;
+                if (pictureDownscaler.isEnabled()) {
+                    uploadFile = pipelineMetrics.time(PICTURE_DOWNSCALE, TASK, () -> pictureDownscaler.downscale(pictureFile));
+                    pipelineMetrics.recordPayload(PICTURE_DOWNSCALE, TASK, uploadFile.length());
+                }
+                File describedFile = uploadFile;
+                description = retryPolicy.callAsync(() -> genAiClient.getDescriptionAsync(describedFile));
+            }
 
-            nodeUpdateService.updateNodeDescription(uuid, genAiClient.getDescription(pictureFile));
-            LOG.debug("Picture {} has been updated with description", entry.getEntry().getName());
+        } catch (IOException e) {
+            description = CompletableFuture.failedFuture(e);
+        }
 
+        return description.thenApplyAsync(result -> {
+            pipelineMetrics.run(NODE_UPDATE, TASK, () -> nodeUpdateService.updateNodeDescription(uuid, result));
+            LOG.debug("Picture {} has been updated with description", entry.getEntry().getName());
+            pipelineMetrics.recordTask(TASK, COMPLETED);
             return true;
-
-        } catch (IOException e) {
-            e.printStackTrace();
+        }, nodeUpdateService.getExecutor()).exceptionally(failure -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            LOG.error("Error describing picture {} ({})", entry.getEntry().getName(), uuid, cause);
+            deadLetterStore.add(uuid, Action.DESCRIBE.name(), cause);
+            pipelineMetrics.recordTask(TASK, FAILED);
             return false;
-        }
+        });
 
     }
 
@@ -1,8 +1,13 @@
 package org.alfresco.genai.action;
 
+import org.alfresco.genai.metrics.PipelineMetrics;
+import org.alfresco.genai.model.Summary;
+import org.alfresco.genai.service.ContentStream;
+import org.alfresco.genai.service.DeadLetterStore;
 import org.alfresco.genai.service.GenAiClient;
 import org.alfresco.genai.service.NodeUpdateService;
 import org.alfresco.genai.service.RenditionService;
+import org.alfresco.genai.service.RetryPolicy;
 import org.alfresco.search.model.ResultSetRowEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +15,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.alfresco.genai.metrics.PipelineMetrics.*;
 
 /**
  * The {@code AiApplierSummary} class is a Spring component that implements the {@link AiApplierAction} interface
@@ -21,12 +32,24 @@ public class AiApplierSummary implements AiApplierAction {
 
     static final Logger LOG = LoggerFactory.getLogger(AiApplierSummary.class);
 
+    /**
+     * Value of the task tag of the metrics recorded by the action.
+     */
+    static final String TASK = "summary";
+
     /**
      * The property name for storing the document summary in the Alfresco repository obtained from configuration.
      */
     @Value("${content.service.summary.summary.property}")
     String summaryProperty;
 
+    /**
+     * Whether contents are piped from the Alfresco Repository to the GenAI service instead of being downloaded to
+     * temporary files obtained from configuration.
+     */
+    @Value("${genai.streaming.enabled}")
+    boolean streamingEnabled;
+
     /**
      * Http client for interacting with the GenAI service
      */
@@ -46,39 +69,81 @@ public class AiApplierSummary implements AiApplierAction {
     NodeUpdateService nodeUpdateService;
 
     /**
-     * Executes the document summarization action on the given {@code ResultSetRowEntry}.
+     * Autowired instance of {@link PipelineMetrics} for recording the duration of every stage and the task results.
+     */
+    @Autowired
+    PipelineMetrics pipelineMetrics;
+
+    /**
+     * Autowired instance of {@link RetryPolicy} for retrying GenAI requests failed with a transient error.
+     */
+    @Autowired
+    RetryPolicy retryPolicy;
+
+    /**
+     * Autowired instance of {@link DeadLetterStore} for recording the documents that could not be processed.
+     */
+    @Autowired
+    DeadLetterStore deadLetterStore;
+
+    /**
+     * Starts the document summarization action on the given {@code ResultSetRowEntry}. The PDF rendition is retrieved
+     * by the calling thread, while the summary is requested to the GenAI service without blocking.
      *
      * @param entry The entry representing an Alfresco document for summarization.
-     * @return {@code true} if the summarization was successful; otherwise, {@code false}.
-     * @throws RuntimeException If an error occurs during summarization, such as IO exception.
+     * @return A future completed with {@code true} if the summarization was successful; otherwise, {@code false}.
      */
     @Override
-    public boolean execute(ResultSetRowEntry entry) {
+    public CompletableFuture<Boolean> executeAsync(ResultSetRowEntry entry) {
 
         String uuid = entry.getEntry().getId();
 
         LOG.debug("Summarizing document {} ({})", entry.getEntry().getName(), uuid);
 
-        if (renditionService.pdfRenditionIsCreated(uuid)) {
+        if (!pipelineMetrics.time(RENDITION_CHECK, TASK, () -> renditionService.pdfRenditionIsCreated(uuid))) {
 
-            try {
+            LOG.debug("PDF rendition for document {} was not available, it has been requested", entry.getEntry().getName());
+            pipelineMetrics.run(RENDITION_REQUEST, TASK, () -> renditionService.createPdfRendition(uuid));
+            pipelineMetrics.recordTask(TASK, RENDITION_REQUESTED);
+            return CompletableFuture.completedFuture(false);
 
-                nodeUpdateService.updateNodeSummary(uuid, genAiClient.getSummary(renditionService.getRenditionContent(uuid)));
-                LOG.debug("Document {} has been updated with summary and tag", entry.getEntry().getName());
-                return true;
+        }
 
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        CompletableFuture<Summary> summary;
+        try {
+
+            if (streamingEnabled) {
+                summary = retryPolicy.callAsync(() -> {
+                    ContentStream pdfStream = pipelineMetrics.time(RENDITION_DOWNLOAD, TASK, () -> renditionService.openRenditionContent(uuid));
+                    pipelineMetrics.recordPayload(RENDITION_DOWNLOAD, TASK, pdfStream.getContentLength());
+                    return genAiClient.getSummaryAsync(pdfStream).whenComplete((result, failure) -> pdfStream.close());
+                });
+            } else {
+                File pdfFile = pipelineMetrics.time(RENDITION_DOWNLOAD, TASK, () -> renditionService.getRenditionContent(uuid));
+                pipelineMetrics.recordPayload(RENDITION_DOWNLOAD, TASK, pdfFile.length());
+                summary = retryPolicy.callAsync(() -> genAiClient.getSummaryAsync(pdfFile));
             }
 
-        } else {
-
-            LOG.debug("PDF rendition for document {} was not available, it has been requested", entry.getEntry().getName());
-            renditionService.createPdfRendition(uuid);
-
+        } catch (IOException e) {
+            summary = CompletableFuture.failedFuture(e);
         }
 
-        return false;
+        return summary.thenApplyAsync(result -> {
+            try {
+                pipelineMetrics.run(NODE_UPDATE, TASK, () -> nodeUpdateService.updateNodeSummary(uuid, result));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            LOG.debug("Document {} has been updated with summary and tag", entry.getEntry().getName());
+            pipelineMetrics.recordTask(TASK, COMPLETED);
+            return true;
+        }, nodeUpdateService.getExecutor()).exceptionally(failure -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            LOG.error("Error summarizing document {} ({})", entry.getEntry().getName(), uuid, cause);
+            deadLetterStore.add(uuid, Action.SUMMARY.name(), cause);
+            pipelineMetrics.recordTask(TASK, FAILED);
+            return false;
+        });
 
     }
 
@@ -0,0 +1,247 @@
+package org.alfresco.genai.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * The {@code PipelineMetrics} class is a Spring component that records Micrometer metrics for every stage of the
+ * GenAI pipeline: checking and downloading the PDF rendition, calling the GenAI service and updating the node in the
+ * Alfresco Repository. Metrics are tagged by stage and by GenAI task (summary, classify, describe), so the
+ * time spent in every stage can be compared per task.
+ *
+ * <p>The following meters are recorded:
+ * <ul>
+ *     <li>{@code genai.stage}: timer of every stage, tagged with the outcome (success or error).</li>
+ *     <li>{@code genai.stage.errors}: counter of failed stages, tagged with the exception class.</li>
+ *     <li>{@code genai.payload}: distribution of the size in bytes of the contents downloaded and uploaded.</li>
+ *     <li>{@code genai.cache.lookups}: counter of GenAI responses looked up in the result cache, tagged with the
+ *     result (hit or miss).</li>
+ *     <li>{@code genai.tasks}: counter of tasks, tagged with the result (completed, rendition requested
+ *     or failed).</li>
+ * </ul>
+ */
+@Component
+public class PipelineMetrics {
+
+    /**
+     * Stage checking the status of the PDF rendition.
+     */
+    public static final String RENDITION_CHECK = "rendition.check";
+
+    /**
+     * Stage requesting the creation of the PDF rendition.
+     */
+    public static final String RENDITION_REQUEST = "rendition.request";
+
+    /**
+     * Stage downloading the PDF rendition.
+     */
+    public static final String RENDITION_DOWNLOAD = "rendition.download";
+
+    /**
+     * Stage downloading the original content of the node.
+     */
+    public static final String CONTENT_DOWNLOAD = "content.download";
+
+    /**
+     * Stage downscaling and re-encoding a picture before describing it.
+     */
+    public static final String PICTURE_DOWNSCALE = "picture.downscale";
+
+    /**
+     * Stage uploading the content to the GenAI service and waiting for the response of the LLM.
+     */
+    public static final String GENAI = "genai";
+
+    /**
+     * Stage writing the result back to the node.
+     */
+    public static final String NODE_UPDATE = "node.update";
+
+    /**
+     * Payload of the GenAI service request.
+     */
+    public static final String GENAI_REQUEST = "genai.request";
+
+    /**
+     * Payload of the GenAI service response.
+     */
+    public static final String GENAI_RESPONSE = "genai.response";
+
+    /**
+     * Task result when the node has been updated.
+     */
+    public static final String COMPLETED = "completed";
+
+    /**
+     * Task result when the task waits for the PDF rendition to be created.
+     */
+    public static final String RENDITION_REQUESTED = "rendition.requested";
+
+    /**
+     * Task result when any stage of the task failed.
+     */
+    public static final String FAILED = "failed";
+
+    /**
+     * Autowired instance of {@link MeterRegistry} for registering the meters.
+     */
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * Runs a stage of the pipeline, recording its duration and, when it fails, the error.
+     *
+     * @param stage The name of the stage.
+     * @param task  The GenAI task the stage belongs to.
+     * @param body  The stage to be run.
+     * @return The result of the stage.
+     * @throws E If the stage fails.
+     */
+    public <T, E extends Exception> T time(String stage, String task, Stage<T, E> body) throws E {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = body.call();
+            outcome = "success";
+            return result;
+        } catch (Exception e) {
+            recordError(stage, task, e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("genai.stage")
+                    .description("Time spent in every stage of the GenAI pipeline")
+                    .tags("stage", stage, "task", task, "outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Starts an asynchronous stage of the pipeline, recording its duration until the returned future completes and,
+     * when it fails, the error.
+     *
+     * @param stage The name of the stage.
+     * @param task  The GenAI task the stage belongs to.
+     * @param body  The stage to be started.
+     * @return A future completed with the result of the stage.
+     */
+    public <T> CompletableFuture<T> timeAsync(String stage, String task, Supplier<CompletableFuture<T>> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return body.get().whenComplete((result, failure) -> {
+            if (failure != null) {
+                recordError(stage, task, failure instanceof CompletionException ? failure.getCause() : failure);
+            }
+            sample.stop(Timer.builder("genai.stage")
+                    .description("Time spent in every stage of the GenAI pipeline")
+                    .tags("stage", stage, "task", task, "outcome", failure == null ? "success" : "error")
+                    .register(meterRegistry));
+        });
+    }
+
+    /**
+     * Runs a stage of the pipeline without result, recording its duration and, when it fails, the error.
+     *
+     * @param stage The name of the stage.
+     * @param task  The GenAI task the stage belongs to.
+     * @param body  The stage to be run.
+     * @throws E If the stage fails.
+     */
+    public <E extends Exception> void run(String stage, String task, VoidStage<E> body) throws E {
+        time(stage, task, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records the size of a content transferred by a stage of the pipeline.
+     *
+     * @param stage The name of the stage.
+     * @param task  The GenAI task the stage belongs to.
+     * @param bytes The size of the content in bytes.
+     */
+    public void recordPayload(String stage, String task, long bytes) {
+        if (bytes < 0) {
+            return;
+        }
+        DistributionSummary.builder("genai.payload")
+                .description("Size of the contents transferred by the GenAI pipeline")
+                .baseUnit("bytes")
+                .tags("stage", stage, "task", task)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Records a failed stage of the pipeline.
+     *
+     * @param stage The name of the stage.
+     * @param task  The GenAI task the stage belongs to.
+     * @param error The error raised by the stage.
+     */
+    public void recordError(String stage, String task, Throwable error) {
+        Counter.builder("genai.stage.errors")
+                .description("Failed stages of the GenAI pipeline")
+                .tags("stage", stage, "task", task, "exception", error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a lookup of a GenAI response in the result cache.
+     *
+     * @param task The GenAI endpoint of the response.
+     * @param hit  Whether the response was found in the cache.
+     */
+    public void recordCacheLookup(String task, boolean hit) {
+        Counter.builder("genai.cache.lookups")
+                .description("GenAI responses looked up in the result cache")
+                .tags("task", task, "result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records the result of a GenAI task.
+     *
+     * @param task   The GenAI task.
+     * @param result The result of the task.
+     */
+    public void recordTask(String task, String result) {
+        Counter.builder("genai.tasks")
+                .description("GenAI tasks processed by result")
+                .tags("task", task, "result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * A stage of the pipeline returning a result.
+     *
+     * @param <T> The type of the result.
+     * @param <E> The type of the exception raised by the stage.
+     */
+    @FunctionalInterface
+    public interface Stage<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * A stage of the pipeline without result.
+     *
+     * @param <E> The type of the exception raised by the stage.
+     */
+    @FunctionalInterface
+    public interface VoidStage<E extends Exception> {
+        void run() throws E;
+    }
+
+}
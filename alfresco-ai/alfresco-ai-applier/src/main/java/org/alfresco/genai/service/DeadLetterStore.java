@@ -0,0 +1,115 @@
+package org.alfresco.genai.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code DeadLetterStore} class is a Spring service that records the documents whose GenAI action failed after
+ * every retry, so they can be replayed once the GenAI service is back without running the applier over the whole
+ * repository again.
+ *
+ * <p>Dead letters are appended to a text file, one line per failure with the action, the document UUID, the time of
+ * the failure and its reason.
+ */
+@Service
+public class DeadLetterStore {
+
+    static final Logger LOG = LoggerFactory.getLogger(DeadLetterStore.class);
+
+    /**
+     * Path of the dead letter file obtained from configuration.
+     */
+    @Value("${applier.dead.letter.file}")
+    String deadLetterFile;
+
+    /**
+     * Path of the dead letter file.
+     */
+    Path path;
+
+    /**
+     * Documents recorded during this execution of the applier.
+     */
+    final Set<String> recordedNodes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Resolves the path of the dead letter file during bean creation.
+     */
+    @PostConstruct
+    public void init() {
+        path = Path.of(deadLetterFile);
+    }
+
+    /**
+     * Records a document whose action failed.
+     *
+     * @param uuid    The unique identifier of the document.
+     * @param action  The name of the failed action.
+     * @param failure The failure.
+     */
+    public synchronized void add(String uuid, String action, Throwable failure) {
+        recordedNodes.add(uuid);
+        String reason = String.valueOf(failure).replaceAll("\\s+", " ");
+        try {
+            String line = String.join(" ", action, uuid, String.valueOf(System.currentTimeMillis()), reason);
+            Files.writeString(path, line + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warn("Error writing dead letter file {}", path, e);
+        }
+    }
+
+    /**
+     * Checks if a document has been recorded as dead letter during this execution of the applier.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return {@code true} if the document has been recorded, {@code false} otherwise.
+     */
+    public boolean contains(String uuid) {
+        return recordedNodes.contains(uuid);
+    }
+
+    /**
+     * Removes and returns the documents whose given action failed, to be replayed. Documents failing again are
+     * recorded back by the action.
+     *
+     * @param action The name of the action.
+     * @return The UUIDs of the documents, in failure order.
+     * @throws IOException If the dead letter file cannot be read or written.
+     */
+    public synchronized List<String> claim(String action) throws IOException {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        Set<String> claimed = new LinkedHashSet<>();
+        List<String> remaining = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(" ", 4);
+            if (fields.length >= 2 && fields[0].equals(action)) {
+                claimed.add(fields[1]);
+            } else if (!line.isBlank()) {
+                remaining.add(line);
+            }
+        }
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmpPath, remaining, StandardCharsets.UTF_8);
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ArrayList<>(claimed);
+    }
+
+}
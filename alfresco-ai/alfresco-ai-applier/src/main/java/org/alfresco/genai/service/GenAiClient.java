@@ -2,9 +2,11 @@ package org.alfresco.genai.service;
 
 import jakarta.annotation.PostConstruct;
 import okhttp3.*;
+import org.alfresco.genai.metrics.PipelineMetrics;
 import org.alfresco.genai.model.Description;
 import org.alfresco.genai.model.Summary;
 import org.alfresco.genai.model.Term;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.json.JsonParser;
 import org.springframework.boot.json.JsonParserFactory;
@@ -12,14 +14,26 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * The {@code GenAiClient} class is a Spring service responsible for interacting with the GenAI service to obtain
  * summaries and terms. It uses an {@link OkHttpClient} to perform HTTP requests to the GenAI service endpoint.
+ *
+ * <p>Responses are cached by the {@link GenAiResultCache}, so byte-identical contents sent with the same parameters
+ * are answered without calling the GenAI service again.
+ *
+ * <p>Every operation accepts the content either as a {@link File} or as a {@link ContentStream} piped from the Alfresco
+ * Repository while it is uploaded. Responses to streamed contents are not cached, since the content is not known
+ * before the request is sent.
+ *
+ * <p>Every operation has an asynchronous variant returning a {@link CompletableFuture}. Asynchronous requests are run by
+ * the dispatcher of the {@link OkHttpClient}, so no thread is held while the LLM produces the response, and the number
+ * of requests in flight is bounded by the dispatcher limits.
  */
 @Service
 public class GenAiClient {
@@ -36,28 +50,244 @@ public class GenAiClient {
     @Value("${genai.request.timeout}")
     Integer genaiTimeout;
 
+    /**
+     * Maximum number of asynchronous requests in flight to the GenAI service obtained from configuration.
+     */
+    @Value("${genai.http.max.requests}")
+    int maxRequests;
+
+    /**
+     * Maximum number of idle connections kept open to the GenAI service obtained from configuration.
+     */
+    @Value("${genai.http.max.idle.connections}")
+    int maxIdleConnections;
+
+    /**
+     * Autowired instance of {@link GenAiResultCache} for reusing the responses obtained for identical contents.
+     */
+    @Autowired
+    GenAiResultCache resultCache;
+
+    /**
+     * Autowired instance of {@link PipelineMetrics} for recording the duration and payload of GenAI requests.
+     */
+    @Autowired
+    PipelineMetrics pipelineMetrics;
+
     /**
      * Static instance of {@link JsonParser} to parse JSON responses from the GenAI service.
      */
     static final JsonParser JSON_PARSER = JsonParserFactory.getJsonParser();
 
+    /**
+     * Media type of PDF contents.
+     */
+    static final MediaType PDF = MediaType.parse("application/pdf");
+
+    /**
+     * Media type of picture contents.
+     */
+    static final MediaType PICTURE = MediaType.parse("Binary data");
+
     /**
      * The OkHttpClient instance for making HTTP requests to the GenAI service.
      */
     OkHttpClient client;
 
     /**
-     * Initializes the OkHttpClient with specified timeouts during bean creation.
+     * Initializes the OkHttpClient with specified timeouts, dispatcher limits and connection pool during bean
+     * creation. Every request in flight targets the same GenAI service, so the limit per host matches the global one.
      */
     @PostConstruct
     public void init() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
         client = new OkHttpClient()
                 .newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES))
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(genaiTimeout, TimeUnit.SECONDS)
                 .build();
     }
 
+    /**
+     * Executes a request to a GenAI endpoint and returns the body of the response. The time spent uploading the
+     * content and waiting for the LLM, and the size of the request and the response are recorded by the
+     * {@link PipelineMetrics}.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param request  The request.
+     * @return The body of the response.
+     * @throws IOException If an I/O error occurs during the HTTP request or the GenAI service returns an error status.
+     */
+    String execute(String endpoint, Request request) throws IOException {
+        pipelineMetrics.recordPayload(PipelineMetrics.GENAI_REQUEST, endpoint, request.body().contentLength());
+        String response = pipelineMetrics.time(PipelineMetrics.GENAI, endpoint, () -> {
+            try (Response httpResponse = client.newCall(request).execute()) {
+                if (!httpResponse.isSuccessful()) {
+                    throw new GenAiResponseException(endpoint, httpResponse.code(), httpResponse.message());
+                }
+                return httpResponse.body().string();
+            }
+        });
+        pipelineMetrics.recordPayload(PipelineMetrics.GENAI_RESPONSE, endpoint,
+                response.getBytes(StandardCharsets.UTF_8).length);
+        return response;
+    }
+
+    /**
+     * Executes a request as {@link #execute(String, Request)} does, unless the response for the same content and
+     * parameters is found in the {@link GenAiResultCache} for the model of the endpoint. Successful responses are
+     * stored in the cache under the model they report.
+     *
+     * @param endpoint   The name of the GenAI endpoint.
+     * @param request    The request.
+     * @param content    The file sent in the request, or {@code null} if the content is streamed.
+     * @param parameters The parameters of the request that change the response.
+     * @return The body of the response.
+     * @throws IOException If the content cannot be read or the request fails.
+     */
+    String executeCached(String endpoint, Request request, File content, String... parameters) throws IOException {
+        if (!resultCache.isEnabled()) {
+            return execute(endpoint, request);
+        }
+        String digest = content != null ? resultCache.digest(content, endpoint, parameters) : null;
+        String response = digest != null ? lookup(endpoint, digest) : null;
+        if (response == null) {
+            response = execute(endpoint, request);
+            cache(endpoint, digest, response);
+        }
+        return response;
+    }
+
+    /**
+     * Enqueues a request to a GenAI endpoint, recording the same metrics as {@link #execute(String, Request)} once
+     * the response is received. The response is closed as soon as its body has been read.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param request  The request.
+     * @return A future completed with the body of the response, or completed exceptionally with an
+     *         {@link IOException} if the request fails or the GenAI service returns an error status.
+     */
+    CompletableFuture<String> executeAsync(String endpoint, Request request) {
+        try {
+            pipelineMetrics.recordPayload(PipelineMetrics.GENAI_REQUEST, endpoint, request.body().contentLength());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return pipelineMetrics.timeAsync(PipelineMetrics.GENAI, endpoint, () -> enqueue(endpoint, request))
+                .thenApply(response -> {
+                    pipelineMetrics.recordPayload(PipelineMetrics.GENAI_RESPONSE, endpoint,
+                            response.getBytes(StandardCharsets.UTF_8).length);
+                    return response;
+                });
+    }
+
+    /**
+     * Enqueues a request as {@link #executeAsync(String, Request)} does, unless the response for the same content
+     * and parameters is found in the {@link GenAiResultCache} for the model of the endpoint. Successful responses are
+     * stored in the cache under the model they report.
+     *
+     * @param endpoint   The name of the GenAI endpoint.
+     * @param request    The request.
+     * @param content    The file sent in the request, or {@code null} if the content is streamed.
+     * @param parameters The parameters of the request that change the response.
+     * @return A future completed with the body of the response.
+     */
+    CompletableFuture<String> executeCachedAsync(String endpoint, Request request, File content,
+                                                 String... parameters) {
+        if (!resultCache.isEnabled()) {
+            return executeAsync(endpoint, request);
+        }
+        String digest;
+        try {
+            digest = content != null ? resultCache.digest(content, endpoint, parameters) : null;
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String response = digest != null ? lookup(endpoint, digest) : null;
+        if (response != null) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return executeAsync(endpoint, request).thenApply(result -> {
+            cache(endpoint, digest, result);
+            return result;
+        });
+    }
+
+    /**
+     * Looks up the response of a request in the {@link GenAiResultCache}, under the model last reported by the
+     * endpoint. Requests to an endpoint that has not responded yet are not looked up, since its model is unknown.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param digest   The digest of the request.
+     * @return The cached response, or {@code null} if it is not cached.
+     */
+    String lookup(String endpoint, String digest) {
+        String model = resultCache.getModel(endpoint);
+        String response = model != null ? resultCache.get(resultCache.key(digest, model)) : null;
+        pipelineMetrics.recordCacheLookup(endpoint, response != null);
+        return response;
+    }
+
+    /**
+     * Records the model reported in a response of an endpoint and stores the response in the {@link GenAiResultCache}
+     * under that model.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param digest   The digest of the request, or {@code null} if the content is streamed and cannot be cached.
+     * @param response The body of the response.
+     */
+    void cache(String endpoint, String digest, String response) {
+        Object model = JSON_PARSER.parseMap(response).get("model");
+        if (model == null) {
+            return;
+        }
+        resultCache.setModel(endpoint, model.toString());
+        if (digest != null) {
+            resultCache.put(resultCache.key(digest, model.toString()), response);
+        }
+    }
+
+    /**
+     * Enqueues a request in the dispatcher of the {@link OkHttpClient}. Cancelling the returned future cancels the
+     * HTTP call.
+     */
+    CompletableFuture<String> enqueue(String endpoint, Request request) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        future.completeExceptionally(
+                                new GenAiResponseException(endpoint, response.code(), response.message()));
+                    } else {
+                        future.complete(response.body().string());
+                    }
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+        });
+        future.whenComplete((response, failure) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
     /**
      * Retrieves a document summary from the GenAI service for the provided PDF file.
      *
@@ -66,20 +296,68 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Summary getSummary(File pdfFile) throws IOException {
+        return parseSummary(executeCached("summary", summaryRequest(pdfFile.getName(), RequestBody.create(pdfFile, PDF)),
+                pdfFile));
+    }
+
+    /**
+     * Retrieves a document summary from the GenAI service for the provided PDF stream.
+     *
+     * @param pdfStream The PDF content for which the summary is requested.
+     * @return A {@link Summary} object containing the summary, tags, and model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Summary getSummary(ContentStream pdfStream) throws IOException {
+        return parseSummary(executeCached("summary", summaryRequest(pdfStream.getName(), pdfStream.toRequestBody(PDF)),
+                null));
+    }
+
+    /**
+     * Retrieves a document summary from the GenAI service for the provided PDF file without blocking.
+     *
+     * @param pdfFile The PDF file for which the summary is requested.
+     * @return A future completed with the {@link Summary} object.
+     */
+    public CompletableFuture<Summary> getSummaryAsync(File pdfFile) {
+        return executeCachedAsync("summary", summaryRequest(pdfFile.getName(), RequestBody.create(pdfFile, PDF)),
+                pdfFile).thenApply(GenAiClient::parseSummary);
+    }
+
+    /**
+     * Retrieves a document summary from the GenAI service for the provided PDF stream without blocking. The stream
+     * must be kept open until the returned future completes.
+     *
+     * @param pdfStream The PDF content for which the summary is requested.
+     * @return A future completed with the {@link Summary} object.
+     */
+    public CompletableFuture<Summary> getSummaryAsync(ContentStream pdfStream) {
+        return executeCachedAsync("summary", summaryRequest(pdfStream.getName(), pdfStream.toRequestBody(PDF)),
+                null).thenApply(GenAiClient::parseSummary);
+    }
+
+    /**
+     * Builds the request to the summary endpoint for a PDF content.
+     */
+    Request summaryRequest(String fileName, RequestBody content) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("file", pdfFile.getName(), RequestBody.create(pdfFile, MediaType.parse("application/pdf")))
+                .addFormDataPart("file", fileName, content)
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(genaiUrl + "/summary")
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
+
+    /**
+     * Parses the response of the summary endpoint.
+     */
+    static Summary parseSummary(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Summary()
                 .summary(aiResponse.get("summary").toString().trim())
@@ -96,11 +374,57 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Term getTerm(File pdfFile, String termList) throws IOException {
+        return parseTerm(executeCached("classify", termRequest(pdfFile.getName(), RequestBody.create(pdfFile, PDF),
+                termList), pdfFile, termList));
+    }
+
+    /**
+     * Selects a term from a term list using the GenAI service for the provided PDF stream.
+     *
+     * @param pdfStream The PDF content of the document to be classified.
+     * @param termList  List of terms that includes options to be selected.
+     * @return An {@link Term} object containing the term and the model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Term getTerm(ContentStream pdfStream, String termList) throws IOException {
+        return parseTerm(executeCached("classify", termRequest(pdfStream.getName(), pdfStream.toRequestBody(PDF),
+                termList), null, termList));
+    }
+
+    /**
+     * Selects a term from a term list using the GenAI service for the provided PDF file without blocking.
+     *
+     * @param pdfFile   The PDF file containing the document to be classified.
+     * @param termList  List of terms that includes options to be selected.
+     * @return A future completed with the {@link Term} object.
+     */
+    public CompletableFuture<Term> getTermAsync(File pdfFile, String termList) {
+        return executeCachedAsync("classify", termRequest(pdfFile.getName(), RequestBody.create(pdfFile, PDF),
+                termList), pdfFile, termList).thenApply(GenAiClient::parseTerm);
+    }
+
+    /**
+     * Selects a term from a term list using the GenAI service for the provided PDF stream without blocking. The
+     * stream must be kept open until the returned future completes.
+     *
+     * @param pdfStream The PDF content of the document to be classified.
+     * @param termList  List of terms that includes options to be selected.
+     * @return A future completed with the {@link Term} object.
+     */
+    public CompletableFuture<Term> getTermAsync(ContentStream pdfStream, String termList) {
+        return executeCachedAsync("classify", termRequest(pdfStream.getName(), pdfStream.toRequestBody(PDF),
+                termList), null, termList).thenApply(GenAiClient::parseTerm);
+    }
+
+    /**
+     * Builds the request to the classify endpoint for a PDF content.
+     */
+    Request termRequest(String fileName, RequestBody content, String termList) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("file", pdfFile.getName(), RequestBody.create(pdfFile, MediaType.parse("application/pdf")))
+                .addFormDataPart("file", fileName, content)
                 .build();
 
         HttpUrl httpUrl = HttpUrl.parse(genaiUrl + "/classify")
@@ -108,19 +432,22 @@ public class GenAiClient {
                 .addQueryParameter("termList", "\"" + termList + "\"")
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(httpUrl)
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
 
+    /**
+     * Parses the response of the classify endpoint.
+     */
+    static Term parseTerm(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Term()
                 .term(aiResponse.get("term").toString().trim())
                 .model(aiResponse.get("model").toString());
-
     }
 
     /**
@@ -131,30 +458,76 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Description getDescription(File pictureFile) throws IOException {
+        return parseDescription(executeCached("describe", descriptionRequest(pictureFile.getName(),
+                RequestBody.create(pictureFile, PICTURE)), pictureFile));
+    }
+
+    /**
+     * Describes a picture using the GenAI service for the provided picture stream.
+     *
+     * @param pictureStream The content of the picture.
+     * @return An {@link Description} object containing the description and the model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Description getDescription(ContentStream pictureStream) throws IOException {
+        return parseDescription(executeCached("describe", descriptionRequest(pictureStream.getName(),
+                pictureStream.toRequestBody(PICTURE)), null));
+    }
+
+    /**
+     * Describes a picture using the GenAI service for the provided picture file without blocking.
+     *
+     * @param pictureFile The picture file.
+     * @return A future completed with the {@link Description} object.
+     */
+    public CompletableFuture<Description> getDescriptionAsync(File pictureFile) {
+        return executeCachedAsync("describe", descriptionRequest(pictureFile.getName(),
+                RequestBody.create(pictureFile, PICTURE)), pictureFile).thenApply(GenAiClient::parseDescription);
+    }
+
+    /**
+     * Describes a picture using the GenAI service for the provided picture stream without blocking. The stream must be
+     * kept open until the returned future completes.
+     *
+     * @param pictureStream The content of the picture.
+     * @return A future completed with the {@link Description} object.
+     */
+    public CompletableFuture<Description> getDescriptionAsync(ContentStream pictureStream) {
+        return executeCachedAsync("describe", descriptionRequest(pictureStream.getName(),
+                pictureStream.toRequestBody(PICTURE)), null).thenApply(GenAiClient::parseDescription);
+    }
+
+    /**
+     * Builds the request to the describe endpoint for a picture content.
+     */
+    Request descriptionRequest(String fileName, RequestBody content) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("image", pictureFile.getName(), RequestBody.create(pictureFile, MediaType.parse("Binary data")))
+                .addFormDataPart("image", fileName, content)
                 .build();
 
         HttpUrl httpUrl = HttpUrl.parse(genaiUrl + "/describe")
                 .newBuilder()
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(httpUrl)
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
 
+    /**
+     * Parses the response of the describe endpoint.
+     */
+    static Description parseDescription(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Description()
                 .description(aiResponse.get("description").toString().trim())
                 .model(aiResponse.get("model").toString());
-
     }
 
 }
@@ -1,9 +1,9 @@
 package org.alfresco.genai.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.alfresco.core.handler.NodesApi;
-import org.alfresco.core.handler.TagsApi;
 import org.alfresco.core.model.NodeBodyUpdate;
-import org.alfresco.core.model.TagBody;
 import org.alfresco.genai.model.Description;
 import org.alfresco.genai.model.Summary;
 import org.alfresco.genai.model.Term;
@@ -11,14 +11,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The {@code NodeUpdateService} class is a Spring service responsible for updating document nodes with GenAI
  * information. It utilizes the Alfresco Nodes API and Tags API for updating node properties and creating tags
  * associated with the document identified by its UUID.
+ *
+ * <p>Updates are blocking calls to the Alfresco Repository, so actions run them on the bounded executor of this service
+ * instead of the threads completing the GenAI requests, which would hold a slot of the HTTP dispatcher meanwhile.
  */
 @Service
 public class NodeUpdateService {
@@ -95,19 +103,60 @@ public class NodeUpdateService {
     NodesApi nodesApi;
 
     /**
-     * Autowired instance of {@link TagsApi} for communication with the Alfresco Tags API.
+     * Autowired instance of {@link ContentService} for creating the tags of a node in a single request.
      */
     @Autowired
-    TagsApi tagsApi;
+    ContentService contentService;
+
+    /**
+     * Number of threads updating nodes with the results of the GenAI requests obtained from configuration.
+     */
+    @Value("${genai.node.update.threads}")
+    int updateThreads;
+
+    /**
+     * The executor running the node updates.
+     */
+    ExecutorService executor;
+
+    /**
+     * Initializes the executor during bean creation.
+     */
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(updateThreads, runnable -> {
+            Thread thread = new Thread(runnable, "genai-node-update");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the executor running the node updates.
+     *
+     * @return The bounded executor for node updates.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Stops the executor when the application is shutting down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
 
     /**
      * Updates the node properties and creates tags for the document identified by its UUID based on the provided
-     * {@link Summary} object.
+     * {@link Summary} object. Tags are created with a single request.
      *
      * @param uuid     The unique identifier of the document node.
      * @param summary  The {@link Summary} object containing summary, tags, and model information.
+     * @throws IOException If an I/O error occurs while creating the tags.
      */
-    public void updateNodeSummary(String uuid, Summary summary) {
+    public void updateNodeSummary(String uuid, Summary summary) throws IOException {
 
         List<String> aspectNames =
                 nodesApi.getNode(uuid, null, null, null).getBody().getEntry().getAspectNames();
@@ -127,13 +176,20 @@ public class NodeUpdateService {
                 new NodeBodyUpdate().properties(properties).aspectNames(aspectNames),
                 null, null);
 
+        List<String> tags = new ArrayList<>();
         if (summaryModelProperty.equals(TAG_PROPERTY)) {
-            tagsApi.createTagForNode(uuid, new TagBody().tag(summary.getModel()), null);
+            tags.add(summary.getModel());
         }
 
         if (summaryTagsProperty.equals(TAG_PROPERTY)) {
-            summary.getTags().forEach(tag ->
-                    tagsApi.createTagForNode(uuid, new TagBody().tag(tag.replace('.', ' ').trim()), null));
+            summary.getTags().stream()
+                    .map(tag -> tag.replace('.', ' ').trim())
+                    .filter(tag -> !tag.isEmpty())
+                    .forEach(tags::add);
+        }
+
+        if (!tags.isEmpty()) {
+            contentService.createTags(uuid, tags);
         }
     }
 
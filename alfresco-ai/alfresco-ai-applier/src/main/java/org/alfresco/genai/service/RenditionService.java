@@ -1,6 +1,8 @@
 package org.alfresco.genai.service;
 
+import org.alfresco.core.handler.NodesApi;
 import org.alfresco.core.handler.RenditionsApi;
+import org.alfresco.core.model.Node;
 import org.alfresco.core.model.Rendition;
 import org.alfresco.core.model.RenditionBodyCreate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,12 +10,15 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.util.Map;
 
 /**
  * The {@code RenditionService} class provides methods for interacting with document renditions through the Alfresco
  * Renditions API. It is a Spring service responsible for retrieving, checking, and creating PDF renditions for
  * documents identified by their unique identifiers (UUIDs).
+ *
+ * <p>Downloaded PDF renditions are kept in the {@link RenditionCache} for the current content version of the document,
+ * so the rendition is downloaded once for every task applied to the same content.
  */
 @Service
 public class RenditionService {
@@ -24,6 +29,24 @@ public class RenditionService {
     @Autowired
     RenditionsApi renditionsApi;
 
+    /**
+     * Autowired instance of {@link NodesApi} for retrieving the content version of documents.
+     */
+    @Autowired
+    NodesApi nodesApi;
+
+    /**
+     * Autowired instance of {@link ContentService} for streaming the content of PDF renditions to disk.
+     */
+    @Autowired
+    ContentService contentService;
+
+    /**
+     * Autowired instance of {@link RenditionCache} for reusing the PDF renditions already downloaded.
+     */
+    @Autowired
+    RenditionCache renditionCache;
+
     /**
      * Retrieves the content of the PDF rendition for a specified document identified by its UUID.
      *
@@ -32,14 +55,46 @@ public class RenditionService {
      * @throws IOException If an I/O error occurs while retrieving or creating the PDF file.
      */
     public File getRenditionContent(String uuid) throws IOException {
-        byte[] pdfFileContent =
-                renditionsApi.getRenditionContent(uuid, "pdf",
-                        false, null, null, null).getBody().getContentAsByteArray();
-        File pdfFile = Files.createTempFile(null, null).toFile();
-        Files.write(pdfFile.toPath(), pdfFileContent);
+        String version = renditionCache.isEnabled() ? getContentVersion(uuid) : null;
+        if (version != null) {
+            File cachedFile = renditionCache.get(uuid, version);
+            if (cachedFile != null) {
+                return cachedFile;
+            }
+        }
+        File pdfFile = contentService.getRenditionContent(uuid, "pdf");
+        if (version != null) {
+            renditionCache.put(uuid, version, pdfFile);
+        }
         return pdfFile;
     }
 
+    /**
+     * Opens the content of the PDF rendition for the document identified by its UUID as a stream, bypassing the
+     * {@link RenditionCache}.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return A {@link ContentStream} with the PDF rendition content, to be closed by the caller.
+     * @throws IOException If an I/O error occurs while opening the PDF rendition content.
+     */
+    public ContentStream openRenditionContent(String uuid) throws IOException {
+        return contentService.openRenditionContent(uuid, "pdf");
+    }
+
+    /**
+     * Gets the version of the content of the document identified by its UUID: the version label for versionable
+     * documents, which only changes with the content, or the modification time otherwise.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return The content version.
+     */
+    public String getContentVersion(String uuid) {
+        Node node = nodesApi.getNode(uuid, null, null, null).getBody().getEntry();
+        Map<?, ?> properties = (Map<?, ?>) node.getProperties();
+        Object versionLabel = properties == null ? null : properties.get("cm:versionLabel");
+        return versionLabel != null ? versionLabel.toString() : String.valueOf(node.getModifiedAt());
+    }
+
     /**
      * Checks if a PDF rendition for a specified document identified by its UUID has been created.
      *
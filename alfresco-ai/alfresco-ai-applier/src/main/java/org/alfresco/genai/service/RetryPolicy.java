@@ -0,0 +1,215 @@
+package org.alfresco.genai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code RetryPolicy} class is a Spring component that decides whether a failed GenAI request is worth retrying
+ * and how long to wait before the next attempt.
+ *
+ * <p>Transient failures are timeouts, connection errors (refused or reset connections, unreachable hosts), responses
+ * with a 5xx, 408 or 429 status. Any other failure, such as a 4xx
+ * response, is considered permanent, since retrying the same request would fail again.
+ *
+ * <p>The delay grows exponentially with the attempt number up to a maximum, and it is jittered to spread the retries
+ * of the documents that failed together during an outage.
+ *
+ * <p>Requests are retried inline by {@link #call(GenAiCall)}, blocking the calling thread during the delay, or in the
+ * background by {@link #callAsync(AsyncGenAiCall)}, which holds no thread during the delay.
+ */
+@Component
+public class RetryPolicy {
+
+    static final Logger LOG = LoggerFactory.getLogger(RetryPolicy.class);
+
+    /**
+     * Maximum number of attempts for a task, including the first one, obtained from configuration.
+     */
+    @Value("${genai.retry.max.attempts}")
+    int maxAttempts;
+
+    /**
+     * Delay in seconds before the first retry obtained from configuration.
+     */
+    @Value("${genai.retry.initial.delay}")
+    long initialDelay;
+
+    /**
+     * Maximum delay in seconds between retries obtained from configuration.
+     */
+    @Value("${genai.retry.max.delay}")
+    long maxDelay;
+
+    /**
+     * Executor starting the delayed attempts of asynchronous requests, independent of the threads that may be waiting
+     * for the requests to complete.
+     */
+    final ExecutorService retryExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "genai-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Performs a GenAI request, retrying it after a delay while it fails with a transient error and the maximum
+     * number of attempts has not been reached.
+     *
+     * @param call The GenAI request.
+     * @return The result of the request.
+     * @throws IOException If the request fails with a permanent error or on the last attempt.
+     */
+    public <T> T call(GenAiCall<T> call) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call();
+            } catch (IOException e) {
+                if (!shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                long delay = getDelay(attempt);
+                LOG.warn("GenAI request failed on attempt {}, retrying in {} seconds: {}",
+                        attempt, TimeUnit.MILLISECONDS.toSeconds(delay), e.toString());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs an asynchronous GenAI request, starting it again after a delay while it fails with a transient error
+     * and the maximum number of attempts has not been reached.
+     *
+     * @param call The asynchronous GenAI request, started again on every attempt.
+     * @return A future completed with the result of the request, or completed exceptionally with the failure of the
+     *         last attempt.
+     */
+    public <T> CompletableFuture<T> callAsync(AsyncGenAiCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(call, 1, result);
+        return result;
+    }
+
+    /**
+     * Starts an attempt of an asynchronous request, scheduling the next one when it fails with a transient error.
+     */
+    <T> void attempt(AsyncGenAiCall<T> call, int attempt, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = call.call();
+        } catch (IOException | RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            if (!shouldRetry(cause, attempt)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            long delay = getDelay(attempt);
+            LOG.warn("GenAI request failed on attempt {}, retrying in {} seconds: {}",
+                    attempt, TimeUnit.MILLISECONDS.toSeconds(delay), cause.toString());
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, retryExecutor)
+                    .execute(() -> attempt(call, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Checks if a failure is transient, so the request may succeed when retried later.
+     *
+     * @param failure The failure.
+     * @return {@code true} if the failure is transient, {@code false} otherwise.
+     */
+    public boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GenAiResponseException responseException) {
+                int statusCode = responseException.getStatusCode();
+                return statusCode >= 500 || statusCode == 408 || statusCode == 429;
+            }
+            if (cause instanceof InterruptedIOException
+                    || cause instanceof SocketException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof EOFException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a task failed on the given attempt should be retried.
+     *
+     * @param failure The failure.
+     * @param attempt The number of the failed attempt, starting with 1.
+     * @return {@code true} if the task should be retried, {@code false} otherwise.
+     */
+    public boolean shouldRetry(Throwable failure, int attempt) {
+        return attempt < maxAttempts && isTransient(failure);
+    }
+
+    /**
+     * Computes the delay before retrying a task failed on the given attempt: the exponential delay is capped to the
+     * maximum delay, and a random jitter of up to half the delay is subtracted.
+     *
+     * @param attempt The number of the failed attempt, starting with 1.
+     * @return The delay in milliseconds.
+     */
+    public long getDelay(int attempt) {
+        long initial = TimeUnit.SECONDS.toMillis(initialDelay);
+        long max = TimeUnit.SECONDS.toMillis(maxDelay);
+        long delay = initial << Math.min(Math.max(attempt - 1, 0), 20);
+        delay = Math.min(delay, max);
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Gets the maximum number of attempts for a task.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * A request to the GenAI service.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface GenAiCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * An asynchronous request to the GenAI service.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface AsyncGenAiCall<T> {
+        CompletableFuture<T> call() throws IOException;
+    }
+
+}
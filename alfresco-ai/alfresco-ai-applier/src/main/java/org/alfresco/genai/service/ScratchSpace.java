@@ -0,0 +1,272 @@
+package org.alfresco.genai.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The {@code ScratchSpace} class is a Spring service that manages the temporary files holding the contents and the
+ * renditions processed by the GenAI tasks. Files are created in a dedicated folder within a {@link Scope} opened for
+ * every unit of work, and they are deleted when the scope is closed, whether the work succeeded or failed.
+ *
+ * <p>The total size of the live files is bounded by a soft quota: once it is reached, creating a new file blocks until
+ * the scopes of other threads release their files, and fails with a {@link ScratchSpaceFullException} when no space
+ * is released in time. The quota is checked against the bytes already written when a file is created, not while the
+ * file is written, so the files being downloaded may take the used space above the quota by up to their own size.
+ * Files left behind by a previous process are removed on startup.
+ */
+@Service
+public class ScratchSpace {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ScratchSpace.class);
+
+    /**
+     * Time in milliseconds between checks of the used space while the quota is exceeded.
+     */
+    static final long POLL_INTERVAL = 1000;
+
+    /**
+     * Folder to store the temporary files obtained from configuration.
+     */
+    @Value("${genai.scratch.dir}")
+    String scratchDir;
+
+    /**
+     * Maximum size in megabytes of the temporary files, checked when a file is created, obtained from configuration.
+     */
+    @Value("${genai.scratch.quota}")
+    long quota;
+
+    /**
+     * Maximum time in seconds to wait for free space when the quota is exceeded obtained from configuration.
+     */
+    @Value("${genai.scratch.wait.timeout}")
+    long waitTimeout;
+
+    /**
+     * The scope opened by the current thread.
+     */
+    final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+    /**
+     * The live temporary files.
+     */
+    final Set<Path> files = new HashSet<>();
+
+    /**
+     * Path of the scratch folder.
+     */
+    Path scratchPath;
+
+    /**
+     * Creates the scratch folder and removes the files left behind by a previous process during bean creation.
+     *
+     * @throws IOException If the scratch folder cannot be created or read.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        scratchPath = Path.of(scratchDir);
+        Files.createDirectories(scratchPath);
+        int orphans = 0;
+        try (Stream<Path> stream = Files.list(scratchPath)) {
+            for (Path file : stream.toList()) {
+                if (Files.isRegularFile(file) && Files.deleteIfExists(file)) {
+                    orphans++;
+                }
+            }
+        }
+        if (orphans > 0) {
+            LOG.info("Removed {} orphaned temporary files from {}", orphans, scratchPath);
+        }
+    }
+
+    /**
+     * Opens a scope for the current thread. Files created by the thread until the scope is closed are deleted when
+     * the scope is closed.
+     *
+     * @return The scope, to be closed once the files are no longer needed.
+     */
+    public Scope open() {
+        Scope scope = new Scope(currentScope.get());
+        currentScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Creates an empty temporary file in the scope opened by the current thread, waiting for free space when the quota
+     * is exceeded by the files already written. The size of the new file is not known yet, so it is not checked
+     * against the quota.
+     *
+     * @return The temporary file.
+     * @throws IOException If the file cannot be created or no space is released in time.
+     * @throws IllegalStateException If the current thread has not opened a scope.
+     */
+    public File createFile() throws IOException {
+        Scope scope = currentScope.get();
+        if (scope == null) {
+            throw new IllegalStateException("No scratch space scope has been opened by the current thread");
+        }
+        awaitSpace(scope);
+        Path file = Files.createTempFile(scratchPath, null, null);
+        synchronized (this) {
+            files.add(file);
+        }
+        scope.files.add(file);
+        return file.toFile();
+    }
+
+    /**
+     * Gets the total size of the live temporary files.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getUsedSpace() {
+        long used = 0;
+        for (Path file : files) {
+            try {
+                used += Files.size(file);
+            } catch (IOException e) {
+                // File removed by its owner
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Gets the number of live temporary files.
+     *
+     * @return The number of files.
+     */
+    public synchronized int getFileCount() {
+        return files.size();
+    }
+
+    /**
+     * Holds the calling thread while the used space is above the quota and part of it is held by other threads, so a
+     * single unit of work larger than the quota is still allowed to progress.
+     */
+    void awaitSpace(Scope scope) throws IOException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(waitTimeout);
+        long limit = quota * 1024 * 1024;
+        synchronized (this) {
+            if (!isFull(scope, limit)) {
+                return;
+            }
+            LOG.warn("Scratch space quota exceeded, {} bytes used, waiting for free space", getUsedSpace());
+            try {
+                while (isFull(scope, limit)) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new ScratchSpaceFullException(getUsedSpace(), limit);
+                    }
+                    wait(Math.min(remaining, POLL_INTERVAL));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for free scratch space");
+            }
+        }
+    }
+
+    /**
+     * Checks if the used space is above the quota while files of other threads are live.
+     */
+    boolean isFull(Scope scope, long limit) {
+        long used = getUsedSpace();
+        return used >= limit && used > scope.getUsedSpace();
+    }
+
+    /**
+     * Deletes the files of a closed scope and wakes up the threads waiting for free space.
+     */
+    synchronized void release(List<Path> scopeFiles) {
+        for (Path file : scopeFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.warn("Error deleting temporary file {}", file, e);
+            }
+            files.remove(file);
+        }
+        notifyAll();
+    }
+
+    /**
+     * A unit of work owning the temporary files created by a thread while it is open.
+     */
+    public class Scope implements AutoCloseable {
+
+        /**
+         * The scope opened by the thread before this one, restored when this scope is closed.
+         */
+        final Scope parent;
+
+        /**
+         * The temporary files created in the scope.
+         */
+        final List<Path> files = new ArrayList<>();
+
+        Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Gets the total size of the live files of the scope and of the scopes opened before it by the thread.
+         */
+        long getUsedSpace() {
+            long used = parent == null ? 0 : parent.getUsedSpace();
+            for (Path file : files) {
+                try {
+                    used += Files.size(file);
+                } catch (IOException e) {
+                    // File removed by its owner
+                }
+            }
+            return used;
+        }
+
+        /**
+         * Detaches the scope from the current thread, restoring the scope opened before it, so files are no longer
+         * created in the scope. The files of the scope are kept until it is closed, possibly by another thread once the
+         * asynchronous work reading them completes.
+         */
+        public void detach() {
+            if (currentScope.get() != this) {
+                return;
+            }
+            if (parent == null) {
+                currentScope.remove();
+            } else {
+                currentScope.set(parent);
+            }
+        }
+
+        /**
+         * Deletes the temporary files created in the scope and detaches it from the current thread.
+         */
+        @Override
+        public void close() {
+            release(files);
+            detach();
+        }
+
+    }
+
+}
@@ -2,12 +2,14 @@ package org.alfresco.genai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The {@code AiListenerApplication} class serves as the entry point for the Spring Boot application designed to listen
  * for and process AI-related events.
  */
 @SpringBootApplication
+@EnableScheduling
 public class AiListenerApplication {
 
     public static void main(String[] args) {
@@ -5,23 +5,22 @@ import org.alfresco.event.sdk.model.v1.model.DataAttributes;
 import org.alfresco.event.sdk.model.v1.model.NodeResource;
 import org.alfresco.event.sdk.model.v1.model.RepoEvent;
 import org.alfresco.event.sdk.model.v1.model.Resource;
-import org.alfresco.genai.service.GenAiClient;
-import org.alfresco.genai.service.NodeUpdateService;
-import org.alfresco.genai.service.RenditionService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.alfresco.genai.job.BackpressureController;
+import org.alfresco.genai.job.GenAiJob;
+import org.alfresco.genai.job.JobDebouncer;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.IOException;
-
 /**
  * The {@code AbstractContentTypeHandler} class is an abstract base class that implements the {@link EventHandler} interface.
  * It serves as a common foundation for handlers focused on content type-specific node events within the Alfresco repository.
  * This handler defines common functionality for handling events related to document content types, such as summarization
- * through the GenAI service.
+ * or classification through the GenAI service.
+ *
+ * <p>The class includes an autowired instance of {@link JobDebouncer}, so bursts of events for the same node are
+ * coalesced into a single job that is queued and run outside the event consumer thread.
  *
- * <p>The class includes autowired instances of essential services, such as {@link GenAiClient}, {@link RenditionService},
- * and {@link NodeUpdateService}, required for interacting with external services and updating document nodes.
+ * <p>Subclasses combine their event filter with {@link NodePartitioner#ownedNodes()}, so events are only handled by the
+ * replica owning the node when several listener replicas share the Alfresco events.
  *
  * <p>Concrete subclasses should extend this class and provide specific event handling logic for their targeted content types.
  *
@@ -29,49 +28,43 @@ import java.io.IOException;
 public abstract class AbstractContentTypeHandler implements EventHandler {
 
     /**
-     * Logger for logging information and error messages.
-     */
-    private static final Logger LOG = LoggerFactory.getLogger(AbstractContentTypeHandler.class);
-
-    /**
-     * Autowired instance of {@link GenAiClient} for interacting with the GenAI service.
+     * Autowired instance of {@link JobDebouncer} for coalescing and queuing GenAI jobs.
      */
     @Autowired
-    GenAiClient genAiClient;
+    JobDebouncer jobDebouncer;
 
     /**
-     * Autowired instance of {@link RenditionService} for handling document renditions.
+     * Autowired instance of {@link BackpressureController} for pausing event consumption while the GenAI backlog is
+     * too large.
      */
     @Autowired
-    RenditionService renditionService;
+    BackpressureController backpressureController;
 
     /**
-     * Autowired instance of {@link NodeUpdateService} for updating document nodes.
+     * Autowired instance of {@link NodePartitioner} for handling only the events of the nodes owned by this replica.
      */
     @Autowired
-    NodeUpdateService nodeUpdateService;
+    NodePartitioner nodePartitioner;
 
     /**
-     * Handles the node-related event by defining common logic for content type-specific events. It checks if a PDF
-     * rendition is already created for the document. If yes, it initiates the document summarization process; otherwise,
-     * it requests the creation of a PDF rendition.
+     * Handles the node-related event by defining common logic for content type-specific events. It submits a job with
+     * the task of the handler for the document to the debouncer; the job requests the PDF rendition when it is not
+     * available yet.
      *
      * @param repoEvent The event containing information about the node.
      */
     @Override
     public void handleEvent(RepoEvent<DataAttributes<Resource>> repoEvent) {
+        backpressureController.awaitCapacity();
         String uuid = ((NodeResource) repoEvent.getData().getResource()).getId();
-        if (renditionService.pdfRenditionIsCreated(uuid)) {
-            LOG.info("Summarizing document {}", uuid);
-            try {
-                nodeUpdateService.updateNodeSummary(uuid, genAiClient.getSummary(renditionService.getRenditionContent(uuid)));
-            } catch (IOException e) {
-                LOG.error(e.getMessage(), e);
-            }
-            LOG.info("Document {} has been updated with summary and tag", uuid);
-        } else {
-            LOG.info("PDF Rendition has been requested for document {}", uuid);
-            renditionService.createPdfRendition(uuid);
-        }
+        jobDebouncer.submit(new GenAiJob().uuid(uuid).task(getTask()));
     }
+
+    /**
+     * Returns the GenAI task to be applied to the documents matching the event filter of the handler.
+     *
+     * @return The GenAI task.
+     */
+    protected abstract GenAiJob.Task getTask();
+
 }
@@ -4,6 +4,7 @@ import org.alfresco.event.sdk.handling.filter.EventFilter;
 import org.alfresco.event.sdk.handling.filter.NodeAspectFilter;
 import org.alfresco.event.sdk.handling.filter.NodeTypeFilter;
 import org.alfresco.event.sdk.handling.handler.OnNodeCreatedEventHandler;
+import org.alfresco.genai.job.GenAiJob;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -24,6 +25,16 @@ public class ContentClassifyCreatedHandler extends AbstractContentTypeHandler im
     @Value("${content.service.classify.aspect}")
     private String classifyAspect;
 
+    /**
+     * Returns the classification task to be applied to the matching documents.
+     *
+     * @return The {@link GenAiJob.Task#CLASSIFY} task.
+     */
+    @Override
+    protected GenAiJob.Task getTask() {
+        return GenAiJob.Task.CLASSIFY;
+    }
+
     /**
      * Specifies the event filter to determine which node creation events this handler should process. The filter criteria
      * include the presence of the classified aspect and the "cm:content" node type.
@@ -33,6 +44,7 @@ public class ContentClassifyCreatedHandler extends AbstractContentTypeHandler im
     @Override
     public EventFilter getEventFilter() {
         return NodeAspectFilter.of(classifyAspect)
-                .and(NodeTypeFilter.of("cm:content"));
+                .and(NodeTypeFilter.of("cm:content"))
+                .and(nodePartitioner.ownedNodes());
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.alfresco.genai.event;
 
 import org.alfresco.event.sdk.handling.filter.*;
 import org.alfresco.event.sdk.handling.handler.OnNodeUpdatedEventHandler;
+import org.alfresco.genai.job.GenAiJob;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -23,6 +24,16 @@ public class ContentClassifyUpdatedHandler extends AbstractContentTypeHandler im
     @Value("${content.service.classify.aspect}")
     private String classifyAspect;
 
+    /**
+     * Returns the classification task to be applied to the matching documents.
+     *
+     * @return The {@link GenAiJob.Task#CLASSIFY} task.
+     */
+    @Override
+    protected GenAiJob.Task getTask() {
+        return GenAiJob.Task.CLASSIFY;
+    }
+
     /**
      * Specifies the event filter to determine which node update events this handler should process. The filter criteria
      * include the presence of the classified aspect, the "cm:content" node type, content changes, or the addition of the
@@ -35,6 +46,7 @@ public class ContentClassifyUpdatedHandler extends AbstractContentTypeHandler im
         return NodeAspectFilter.of(classifyAspect)
                 .and(NodeTypeFilter.of("cm:content"))
                 .and(ContentChangedFilter.get())
-                .or(AspectAddedFilter.of(classifyAspect));
+                .or(AspectAddedFilter.of(classifyAspect))
+                .and(nodePartitioner.ownedNodes());
     }
 }
\ No newline at end of file
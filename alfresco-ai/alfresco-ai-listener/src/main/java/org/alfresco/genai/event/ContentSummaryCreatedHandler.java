@@ -2,6 +2,7 @@ package org.alfresco.genai.event;
 
 import org.alfresco.event.sdk.handling.filter.*;
 import org.alfresco.event.sdk.handling.handler.OnNodeCreatedEventHandler;
+import org.alfresco.genai.job.GenAiJob;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +23,16 @@ public class ContentSummaryCreatedHandler extends AbstractContentTypeHandler imp
     @Value("${content.service.summary.aspect}")
     private String summaryAspect;
 
+    /**
+     * Returns the summarization task to be applied to the matching documents.
+     *
+     * @return The {@link GenAiJob.Task#SUMMARY} task.
+     */
+    @Override
+    protected GenAiJob.Task getTask() {
+        return GenAiJob.Task.SUMMARY;
+    }
+
     /**
      * Specifies the event filter to determine which node creation events this handler should process. The filter criteria
      * include the presence of the summary aspect and the "cm:content" node type.
@@ -31,6 +42,7 @@ public class ContentSummaryCreatedHandler extends AbstractContentTypeHandler imp
     @Override
     public EventFilter getEventFilter() {
         return NodeAspectFilter.of(summaryAspect)
-                .and(NodeTypeFilter.of("cm:content"));
+                .and(NodeTypeFilter.of("cm:content"))
+                .and(nodePartitioner.ownedNodes());
     }
 }
\ No newline at end of file
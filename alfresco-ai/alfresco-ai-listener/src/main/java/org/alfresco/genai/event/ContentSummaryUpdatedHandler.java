@@ -2,6 +2,7 @@ package org.alfresco.genai.event;
 
 import org.alfresco.event.sdk.handling.filter.*;
 import org.alfresco.event.sdk.handling.handler.OnNodeUpdatedEventHandler;
+import org.alfresco.genai.job.GenAiJob;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -23,6 +24,16 @@ public class ContentSummaryUpdatedHandler extends AbstractContentTypeHandler imp
     @Value("${content.service.summary.aspect}")
     private String summaryAspect;
 
+    /**
+     * Returns the summarization task to be applied to the matching documents.
+     *
+     * @return The {@link GenAiJob.Task#SUMMARY} task.
+     */
+    @Override
+    protected GenAiJob.Task getTask() {
+        return GenAiJob.Task.SUMMARY;
+    }
+
     /**
      * Specifies the event filter to determine which node update events this handler should process. The filter criteria
      * include the presence of the summary aspect, the "cm:content" node type, content changes, or the addition of the
@@ -35,6 +46,7 @@ public class ContentSummaryUpdatedHandler extends AbstractContentTypeHandler imp
         return NodeAspectFilter.of(summaryAspect)
                 .and(NodeTypeFilter.of("cm:content"))
                 .and(ContentChangedFilter.get())
-                .or(AspectAddedFilter.of(summaryAspect));
+                .or(AspectAddedFilter.of(summaryAspect))
+                .and(nodePartitioner.ownedNodes());
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package org.alfresco.genai.event;
+
+import jakarta.annotation.PostConstruct;
+import org.alfresco.event.sdk.handling.filter.EventFilter;
+import org.alfresco.event.sdk.model.v1.model.NodeResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The {@code NodePartitioner} class is a Spring component that shares the Alfresco events among several listener
+ * replicas. Every replica receives every event from the Alfresco topic, and only handles the events of the nodes it
+ * owns, so the jobs of a node always run on the same replica and its local caches stay effective.
+ *
+ * <p>Nodes are assigned to replicas by consistent hashing: every replica is placed at several points of a hash ring,
+ * and a node is owned by the replica of the first point following the hash of its UUID. Adding or removing a replica
+ * only moves the nodes of the points it takes or leaves. When no replica set is configured, every node is owned.
+ */
+@Component
+public class NodePartitioner {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(NodePartitioner.class);
+
+    /**
+     * Identifiers of the replicas sharing the events obtained from configuration.
+     */
+    @Value("${genai.partition.replicas}")
+    String[] replicas;
+
+    /**
+     * Identifier of this replica obtained from configuration.
+     */
+    @Value("${genai.partition.replica}")
+    String replica;
+
+    /**
+     * Number of points of every replica in the hash ring obtained from configuration.
+     */
+    @Value("${genai.partition.virtual.nodes}")
+    int virtualNodes;
+
+    /**
+     * Replica identifiers indexed by their points in the hash ring.
+     */
+    final TreeMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * Builds the hash ring of the configured replicas during bean creation.
+     *
+     * @throws IllegalStateException If this replica is not one of the configured replicas.
+     */
+    @PostConstruct
+    public void init() {
+        List<String> replicaIds = Arrays.stream(replicas).map(String::trim).filter(id -> !id.isEmpty()).toList();
+        if (replicaIds.isEmpty()) {
+            return;
+        }
+        if (!replicaIds.contains(replica)) {
+            throw new IllegalStateException("Replica " + replica + " is not one of the replicas " + replicaIds);
+        }
+        for (String replicaId : replicaIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(replicaId + "#" + i), replicaId);
+            }
+        }
+        LOG.info("Handling the events of the nodes owned by replica {} of {}", replica, replicaIds);
+    }
+
+    /**
+     * Checks if the node identified by its UUID is owned by this replica.
+     *
+     * @param uuid The unique identifier of the node.
+     * @return {@code true} if this replica handles the events of the node, {@code false} otherwise.
+     */
+    public boolean owns(String uuid) {
+        if (ring.isEmpty()) {
+            return true;
+        }
+        Map.Entry<Long, String> point = ring.ceilingEntry(hash(uuid));
+        return (point != null ? point : ring.firstEntry()).getValue().equals(replica);
+    }
+
+    /**
+     * Creates an event filter accepting the events of the nodes owned by this replica.
+     *
+     * @return An {@link EventFilter} to be combined with the filter of a handler.
+     */
+    public EventFilter ownedNodes() {
+        return repoEvent -> owns(((NodeResource) repoEvent.getData().getResource()).getId());
+    }
+
+    /**
+     * Hashes a value to a point of the ring.
+     */
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
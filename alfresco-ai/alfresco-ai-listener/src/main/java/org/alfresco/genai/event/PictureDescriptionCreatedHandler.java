@@ -35,7 +35,8 @@ public class PictureDescriptionCreatedHandler extends AbstractPictureTypeHandler
     @Override
     public EventFilter getEventFilter() {
         return NodeAspectFilter.of(descriptionAspect)
-                .and(NodeTypeFilter.of("cm:content"));
+                .and(NodeTypeFilter.of("cm:content"))
+                .and(nodePartitioner.ownedNodes());
     }
 
 }
\ No newline at end of file
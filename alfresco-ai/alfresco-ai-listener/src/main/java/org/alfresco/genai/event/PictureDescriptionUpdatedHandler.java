@@ -35,6 +35,7 @@ public class PictureDescriptionUpdatedHandler extends AbstractPictureTypeHandler
         return NodeAspectFilter.of(descriptionAspect)
                 .and(NodeTypeFilter.of("cm:content"))
                 .and(ContentChangedFilter.get())
-                .or(AspectAddedFilter.of(descriptionAspect));
+                .or(AspectAddedFilter.of(descriptionAspect))
+                .and(nodePartitioner.ownedNodes());
     }
 }
\ No newline at end of file
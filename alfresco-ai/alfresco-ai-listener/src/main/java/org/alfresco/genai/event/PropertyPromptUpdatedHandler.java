@@ -1,23 +1,18 @@
 package org.alfresco.genai.event;
 
 import org.alfresco.event.sdk.handling.filter.PropertyChangedFilter;
-import org.alfresco.genai.service.GenAiClient;
-import org.alfresco.genai.service.NodeUpdateService;
-import org.alfresco.genai.service.RenditionService;
+import org.alfresco.genai.job.GenAiJob;
+import org.alfresco.genai.job.JobDispatcher;
 import org.alfresco.event.sdk.handling.filter.EventFilter;
 import org.alfresco.event.sdk.handling.handler.OnNodeUpdatedEventHandler;
 import org.alfresco.event.sdk.model.v1.model.DataAttributes;
 import org.alfresco.event.sdk.model.v1.model.NodeResource;
 import org.alfresco.event.sdk.model.v1.model.RepoEvent;
 import org.alfresco.event.sdk.model.v1.model.Resource;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-
 /**
  * The {@code PropertyPromptUpdatedHandler} class is a Spring component responsible for handling events triggered upon the
  * update of specific properties of nodes. It implements the {@link OnNodeUpdatedEventHandler} interface to define
@@ -31,11 +26,6 @@ import java.io.IOException;
 @Component
 public class PropertyPromptUpdatedHandler implements OnNodeUpdatedEventHandler {
 
-    /**
-     * Logger for logging information and error messages.
-     */
-    private static final Logger LOG = LoggerFactory.getLogger(PropertyPromptUpdatedHandler.class);
-
     /**
      * Name of the property that holds the question to be answered.
      */
@@ -43,27 +33,22 @@ public class PropertyPromptUpdatedHandler implements OnNodeUpdatedEventHandler {
     private String questionProperty;
 
     /**
-     * Autowired instance of {@link GenAiClient} for interacting with the GenAI service.
-     */
-    @Autowired
-    private GenAiClient genAiClient;
-
-    /**
-     * Autowired instance of {@link RenditionService} for handling document renditions.
+     * Autowired instance of {@link JobDispatcher} for queuing GenAI jobs.
      */
     @Autowired
-    private RenditionService renditionService;
+    private JobDispatcher jobDispatcher;
 
     /**
-     * Autowired instance of {@link NodeUpdateService} for updating document nodes.
+     * Autowired instance of {@link NodePartitioner} for handling only the events of the nodes owned by this replica.
      */
     @Autowired
-    private NodeUpdateService nodeUpdateService;
+    private NodePartitioner nodePartitioner;
 
     /**
      * Handles the node update event triggered by the system when a specified property is updated. Retrieves the
-     * question associated with the property, obtains an answer using the GenAI service, and updates the document node
-     * with the obtained answer.
+     * question associated with the property and queues a job that obtains an answer using the GenAI service and
+     * updates the document node with the obtained answer. Questions are interactive, so they are queued without
+     * waiting for the backlog of enrichment and backfill jobs to drain.
      *
      * @param repoEvent The event containing information about the updated node.
      */
@@ -73,25 +58,22 @@ public class PropertyPromptUpdatedHandler implements OnNodeUpdatedEventHandler {
         String uuid = ((NodeResource) repoEvent.getData().getResource()).getId();
         String question = ((NodeResource) repoEvent.getData().getResource()).getProperties().get(questionProperty).toString();
 
-        LOG.info("Answering question '{}' for document {}", question, uuid);
-        try {
-            nodeUpdateService.updateNodeAnswer(uuid, genAiClient.getAnswer(renditionService.getRenditionContent(uuid), question));
-        } catch (IOException e) {
-            LOG.error("Error updating document {}", uuid, e);
-        }
-        LOG.info("Document {} has been updated with answer", uuid);
+        jobDispatcher.submit(new GenAiJob().uuid(uuid).task(GenAiJob.Task.PROMPT).question(question)
+                .priority(GenAiJob.Priority.INTERACTIVE));
 
     }
 
     /**
      * Specifies the event filter to determine which node update events this handler should process. In this case,
-     * the filter is based on the updated property specified by {@code questionProperty}.
+     * the filter is based on the updated property specified by {@code questionProperty}, for the nodes owned by this
+     * replica.
      *
      * @return An {@link EventFilter} representing the filter criteria for node update events.
      */
     @Override
     public EventFilter getEventFilter() {
-        return PropertyChangedFilter.of(questionProperty);
+        return PropertyChangedFilter.of(questionProperty)
+                .and(nodePartitioner.ownedNodes());
     }
 
 }
@@ -0,0 +1,62 @@
+package org.alfresco.genai.event;
+
+import org.alfresco.event.sdk.handling.filter.ContentChangedFilter;
+import org.alfresco.event.sdk.handling.filter.EventFilter;
+import org.alfresco.event.sdk.handling.filter.NodeTypeFilter;
+import org.alfresco.event.sdk.handling.handler.OnNodeUpdatedEventHandler;
+import org.alfresco.event.sdk.model.v1.model.DataAttributes;
+import org.alfresco.event.sdk.model.v1.model.NodeResource;
+import org.alfresco.event.sdk.model.v1.model.RepoEvent;
+import org.alfresco.event.sdk.model.v1.model.Resource;
+import org.alfresco.genai.job.IdempotencyLedger;
+import org.alfresco.genai.service.RenditionCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code RenditionCacheInvalidationHandler} class is a Spring component that implements the
+ * {@link OnNodeUpdatedEventHandler} interface. It removes the cached PDF rendition of a document from the
+ * {@link RenditionCache} as soon as the content of the document changes, so no task is applied to a stale rendition.
+ * The tasks recorded as completed for the document in the {@link IdempotencyLedger} are removed as well, so they are
+ * applied again to the new content even when it has the same type and size as the previous one.
+ */
+@Component
+public class RenditionCacheInvalidationHandler implements OnNodeUpdatedEventHandler {
+
+    /**
+     * Autowired instance of {@link RenditionCache} for removing the renditions of changed documents.
+     */
+    @Autowired
+    RenditionCache renditionCache;
+
+    /**
+     * Autowired instance of {@link IdempotencyLedger} for removing the tasks completed on the previous content.
+     */
+    @Autowired
+    IdempotencyLedger idempotencyLedger;
+
+    /**
+     * Handles the node update event by removing the cached rendition and the completed tasks of the document.
+     *
+     * @param repoEvent The event containing information about the updated node.
+     */
+    @Override
+    public void handleEvent(final RepoEvent<DataAttributes<Resource>> repoEvent) {
+        String uuid = ((NodeResource) repoEvent.getData().getResource()).getId();
+        renditionCache.invalidate(uuid);
+        idempotencyLedger.invalidate(uuid);
+    }
+
+    /**
+     * Specifies the event filter to determine which node update events this handler should process. In this case,
+     * the filter is based on content changes of nodes with the "cm:content" type.
+     *
+     * @return An {@link EventFilter} representing the filter criteria for node update events.
+     */
+    @Override
+    public EventFilter getEventFilter() {
+        return NodeTypeFilter.of("cm:content")
+                .and(ContentChangedFilter.get());
+    }
+
+}
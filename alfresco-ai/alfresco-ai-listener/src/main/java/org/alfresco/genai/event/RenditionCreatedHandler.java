@@ -0,0 +1,78 @@
+package org.alfresco.genai.event;
+
+import org.alfresco.event.sdk.handling.filter.EventFilter;
+import org.alfresco.event.sdk.handling.filter.NodeTypeFilter;
+import org.alfresco.event.sdk.handling.handler.OnNodeCreatedEventHandler;
+import org.alfresco.event.sdk.model.v1.model.DataAttributes;
+import org.alfresco.event.sdk.model.v1.model.NodeResource;
+import org.alfresco.event.sdk.model.v1.model.RepoEvent;
+import org.alfresco.event.sdk.model.v1.model.Resource;
+import org.alfresco.genai.job.GenAiJob;
+import org.alfresco.genai.job.JobDispatcher;
+import org.alfresco.genai.job.PendingRenditionRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * The {@code RenditionCreatedHandler} class is a Spring component responsible for handling events triggered upon the
+ * creation of nodes, specifically focusing on PDF renditions. It implements the {@link OnNodeCreatedEventHandler}
+ * interface to define custom logic for processing node creation events.
+ *
+ * <p>When a PDF rendition is created, this handler checks the {@link PendingRenditionRegistry} for tasks waiting for
+ * the rendition of the associated document. If any, the handler queues a job to apply these tasks (summary or
+ * classification) by using the GenAI service. Renditions not requested by the listener are ignored without calling
+ * the Alfresco REST API.
+ *
+ */
+@Component
+public class RenditionCreatedHandler implements OnNodeCreatedEventHandler {
+
+    /**
+     * Autowired instance of {@link PendingRenditionRegistry} for retrieving the tasks waiting for a rendition.
+     */
+    @Autowired
+    PendingRenditionRegistry pendingRenditionRegistry;
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for queuing GenAI jobs.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Handles the node creation event triggered by the system. Checks for PDF renditions associated with documents
+     * waiting for them and queues a job with the pending tasks of the document.
+     *
+     * @param repoEvent The event containing information about the created node.
+     */
+    @Override
+    public void handleEvent(final RepoEvent<DataAttributes<Resource>> repoEvent) {
+
+        NodeResource nodeResource = (NodeResource) repoEvent.getData().getResource();
+        if (!nodeResource.getName().equals("pdf")) {
+            return;
+        }
+
+        String uuid = nodeResource.getPrimaryHierarchy().get(0);
+        Set<GenAiJob.Task> tasks = pendingRenditionRegistry.claim(uuid);
+        if (!tasks.isEmpty()) {
+            GenAiJob job = new GenAiJob().uuid(uuid);
+            tasks.forEach(job::task);
+            jobDispatcher.submit(job);
+        }
+    }
+
+    /**
+     * Specifies the event filter to determine which node creation events this handler should process. In this case,
+     * the filter is based on the node type "cm:thumbnail."
+     *
+     * @return An {@link EventFilter} representing the filter criteria for node creation events.
+     */
+    @Override
+    public EventFilter getEventFilter() {
+        return NodeTypeFilter.of("cm:thumbnail");
+    }
+
+}
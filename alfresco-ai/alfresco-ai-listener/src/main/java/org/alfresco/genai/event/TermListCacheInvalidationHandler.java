@@ -0,0 +1,59 @@
+package org.alfresco.genai.event;
+
+import org.alfresco.event.sdk.handling.filter.EventFilter;
+import org.alfresco.event.sdk.handling.filter.NodeMovedFilter;
+import org.alfresco.event.sdk.handling.filter.PropertyChangedFilter;
+import org.alfresco.event.sdk.handling.handler.OnNodeUpdatedEventHandler;
+import org.alfresco.event.sdk.model.v1.model.DataAttributes;
+import org.alfresco.event.sdk.model.v1.model.NodeResource;
+import org.alfresco.event.sdk.model.v1.model.RepoEvent;
+import org.alfresco.event.sdk.model.v1.model.Resource;
+import org.alfresco.genai.service.TermListCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code TermListCacheInvalidationHandler} class is a Spring component that implements the
+ * {@link OnNodeUpdatedEventHandler} interface. It removes the cached term list of a folder from the
+ * {@link TermListCache} as soon as its terms change, and the cached primary parent of a node when it is moved, so no
+ * document is classified with stale terms.
+ */
+@Component
+public class TermListCacheInvalidationHandler implements OnNodeUpdatedEventHandler {
+
+    /**
+     * Property that includes a list of terms for classification.
+     */
+    @Value("${content.service.classify.terms.property}")
+    private String termsProperty;
+
+    /**
+     * Autowired instance of {@link TermListCache} for removing the term lists of changed folders.
+     */
+    @Autowired
+    TermListCache termListCache;
+
+    /**
+     * Handles the node update event by removing the cached term list and primary parent of the node.
+     *
+     * @param repoEvent The event containing information about the updated node.
+     */
+    @Override
+    public void handleEvent(final RepoEvent<DataAttributes<Resource>> repoEvent) {
+        termListCache.invalidate(((NodeResource) repoEvent.getData().getResource()).getId());
+    }
+
+    /**
+     * Specifies the event filter to determine which node update events this handler should process. In this case,
+     * the filter is based on changes of the property specified by {@code termsProperty} and on moved nodes.
+     *
+     * @return An {@link EventFilter} representing the filter criteria for node update events.
+     */
+    @Override
+    public EventFilter getEventFilter() {
+        return PropertyChangedFilter.of(termsProperty)
+                .or(NodeMovedFilter.get());
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.alfresco.genai.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code BackpressureController} class is a Spring component that pauses Alfresco event consumption while the
+ * backlog of GenAI jobs (queued and debounced) is too large. The content and picture event handlers call
+ * {@link #awaitCapacity()} before accepting an event: once the backlog reaches the high watermark, the event consumer
+ * thread is held until the backlog drains below the low watermark. Interactive questions are not held, so a user does
+ * not wait for the backlog to drain.
+ *
+ * <p>While the consumer thread is held, no further messages are consumed, and the broker stops dispatching once the
+ * topic prefetch of the consumer is full, so pending events stay in ActiveMQ and the listener heap remains bounded.
+ * This is not durable: the event SDK subscribes to a non-durable topic, so the events held back during a pause are
+ * lost if the listener restarts, and the nodes affected are enriched by the {@link CatchUpReconciler} on the next
+ * start.
+ */
+@Component
+public class BackpressureController {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(BackpressureController.class);
+
+    /**
+     * Time in milliseconds between backlog checks while event consumption is paused.
+     */
+    static final long POLL_INTERVAL = 500;
+
+    /**
+     * Backlog of jobs that pauses event consumption obtained from configuration.
+     */
+    @Value("${genai.jobs.backpressure.high.watermark}")
+    int highWatermark;
+
+    /**
+     * Backlog of jobs that resumes event consumption obtained from configuration.
+     */
+    @Value("${genai.jobs.backpressure.low.watermark}")
+    int lowWatermark;
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for retrieving the number of queued jobs.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Autowired instance of {@link JobDebouncer} for retrieving the number of debounced jobs.
+     */
+    @Autowired
+    JobDebouncer jobDebouncer;
+
+    /**
+     * Whether event consumption is currently paused.
+     */
+    volatile boolean paused;
+
+    /**
+     * Holds the calling thread while the backlog is above the watermarks. Returns immediately when event consumption
+     * is not paused and the backlog is below the high watermark.
+     */
+    public void awaitCapacity() {
+        int backlog = getBacklog();
+        if (!paused && backlog < highWatermark) {
+            return;
+        }
+        if (!paused) {
+            paused = true;
+            LOG.info("Pausing event consumption, {} GenAI jobs pending", backlog);
+        }
+        try {
+            while (getBacklog() > lowWatermark) {
+                Thread.sleep(POLL_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        paused = false;
+        LOG.info("Resuming event consumption, {} GenAI jobs pending", getBacklog());
+    }
+
+    /**
+     * Gets the number of GenAI jobs queued or waiting for the end of their debounce window.
+     *
+     * @return The backlog of jobs.
+     */
+    public int getBacklog() {
+        return jobDispatcher.getQueueSize() + jobDebouncer.getPendingCount();
+    }
+
+    /**
+     * Checks if event consumption is currently paused.
+     *
+     * @return {@code true} if event consumption is paused, {@code false} otherwise.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+}
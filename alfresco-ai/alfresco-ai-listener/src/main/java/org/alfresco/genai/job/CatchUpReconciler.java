@@ -0,0 +1,274 @@
+package org.alfresco.genai.job;
+
+import jakarta.annotation.PreDestroy;
+import org.alfresco.genai.event.NodePartitioner;
+import org.alfresco.search.handler.SearchApi;
+import org.alfresco.search.model.RequestPagination;
+import org.alfresco.search.model.RequestQuery;
+import org.alfresco.search.model.RequestSortDefinition;
+import org.alfresco.search.model.RequestSortDefinitionInner;
+import org.alfresco.search.model.ResultSetPaging;
+import org.alfresco.search.model.ResultSetRowEntry;
+import org.alfresco.search.model.SearchRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code CatchUpReconciler} class is a Spring component that enriches on startup the nodes whose events were
+ * missed while the listener was down, or lost from a non-durable topic. It searches the nodes with the summary,
+ * classification or description aspect that lack the property storing the result of the task and were modified since
+ * the last catch-up, and queues a job for every one of them with the backfill priority, so new content is still
+ * enriched first.
+ *
+ * <p>The start time of the last catch-up completed is stored as a checkpoint in the data folder. Nodes are searched
+ * with an overlap before the checkpoint, since the search index may lag behind the repository; nodes already enriched
+ * are excluded by the search, and nodes with a pending retry or a dead letter are skipped. When there is no checkpoint,
+ * every node lacking a result is queued. Only the nodes owned by this replica are queued.
+ */
+@Component
+public class CatchUpReconciler {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(CatchUpReconciler.class);
+
+    /**
+     * Name of the checkpoint file in the data folder.
+     */
+    static final String CHECKPOINT_FILE = "catchup.checkpoint";
+
+    /**
+     * Whether the catch-up runs on startup obtained from configuration.
+     */
+    @Value("${genai.catchup.enabled}")
+    boolean enabled;
+
+    /**
+     * Time in seconds searched before the checkpoint obtained from configuration.
+     */
+    @Value("${genai.catchup.overlap}")
+    long overlap;
+
+    /**
+     * Number of nodes retrieved on every search request obtained from configuration.
+     */
+    @Value("${genai.catchup.page.size}")
+    int pageSize;
+
+    /**
+     * Folder to store local state of the listener obtained from configuration.
+     */
+    @Value("${genai.data.dir}")
+    String dataDir;
+
+    /**
+     * Aspect name associated with summarization obtained from configuration.
+     */
+    @Value("${content.service.summary.aspect}")
+    String summaryAspect;
+
+    /**
+     * The property name for storing the document summary obtained from configuration.
+     */
+    @Value("${content.service.summary.summary.property}")
+    String summaryProperty;
+
+    /**
+     * Aspect name associated with classification obtained from configuration.
+     */
+    @Value("${content.service.classify.aspect}")
+    String classifyAspect;
+
+    /**
+     * The property name for storing the term obtained from configuration.
+     */
+    @Value("${content.service.classify.term.property}")
+    String termProperty;
+
+    /**
+     * Aspect name associated with picture description obtained from configuration.
+     */
+    @Value("${content.service.description.aspect}")
+    String descriptionAspect;
+
+    /**
+     * The property name for storing the picture description obtained from configuration.
+     */
+    @Value("${content.service.description.description.property}")
+    String descriptionProperty;
+
+    /**
+     * Autowired instance of {@link SearchApi} for searching the nodes lacking a result in the Alfresco Repository.
+     */
+    @Autowired
+    SearchApi searchApi;
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for queuing the jobs of the nodes found.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Autowired instance of {@link BackpressureController} for waiting while the GenAI backlog is too large.
+     */
+    @Autowired
+    BackpressureController backpressureController;
+
+    /**
+     * Autowired instance of {@link FailedTaskStore} for skipping the tasks already waiting for a retry.
+     */
+    @Autowired
+    FailedTaskStore failedTaskStore;
+
+    /**
+     * Autowired instance of {@link NodePartitioner} for queuing only the nodes owned by this replica.
+     */
+    @Autowired
+    NodePartitioner nodePartitioner;
+
+    /**
+     * Whether the application is shutting down.
+     */
+    volatile boolean stopped;
+
+    /**
+     * Starts the catch-up in a background thread once the application is ready, so events are consumed meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::reconcile, "genai-catchup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues the jobs of the nodes lacking a result and stores the checkpoint once every job has been queued.
+     */
+    void reconcile() {
+        Instant start = Instant.now();
+        try {
+            Instant checkpoint = readCheckpoint();
+            Instant since = checkpoint != null ? checkpoint.minusSeconds(overlap) : null;
+            LOG.info("Searching nodes lacking GenAI results modified since {}", since != null ? since : "ever");
+
+            Map<String, GenAiJob> jobs = new LinkedHashMap<>();
+            collect(jobs, GenAiJob.Task.SUMMARY, summaryAspect, summaryProperty, since);
+            collect(jobs, GenAiJob.Task.CLASSIFY, classifyAspect, termProperty, since);
+            collect(jobs, GenAiJob.Task.DESCRIBE, descriptionAspect, descriptionProperty, since);
+
+            LOG.info("Queuing {} nodes lacking GenAI results", jobs.size());
+            for (GenAiJob job : jobs.values()) {
+                if (stopped) {
+                    break;
+                }
+                backpressureController.awaitCapacity();
+                jobDispatcher.submit(job);
+            }
+            if (stopped) {
+                LOG.info("Catch-up interrupted by shutdown, it will be run again on the next start");
+                return;
+            }
+            writeCheckpoint(start);
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Error catching up nodes lacking GenAI results, it will be run again on the next start", e);
+        }
+    }
+
+    /**
+     * Adds a task to the jobs of the nodes owned by this replica that have the aspect of the task and lack its result.
+     * Every node is collected before queuing any job, since the search results change as jobs complete.
+     */
+    void collect(Map<String, GenAiJob> jobs, GenAiJob.Task task, String aspect, String resultProperty, Instant since) {
+
+        String query = "ASPECT:\"" + aspect + "\" AND TYPE:\"cm:content\" AND NOT EXISTS:\"" + resultProperty + "\"";
+        if (since != null) {
+            query += " AND cm:modified:[\"" + since.truncatedTo(ChronoUnit.MILLIS) + "\" TO MAX]";
+        }
+
+        RequestSortDefinition sortDefinition = new RequestSortDefinition();
+        sortDefinition.add(new RequestSortDefinitionInner()
+                .type(RequestSortDefinitionInner.TypeEnum.FIELD)
+                .field("id")
+                .ascending(true));
+
+        int skipCount = 0;
+        boolean hasMoreItems;
+        do {
+            ResultSetPaging results = searchApi.search(
+                    new SearchRequest()
+                            .query(new RequestQuery()
+                                    .language(RequestQuery.LanguageEnum.AFTS)
+                                    .query(query))
+                            .sort(sortDefinition)
+                            .paging(new RequestPagination().maxItems(pageSize).skipCount(skipCount)))
+                    .getBody();
+            for (ResultSetRowEntry entry : results.getList().getEntries()) {
+                String uuid = entry.getEntry().getId();
+                if (nodePartitioner.owns(uuid) && !failedTaskStore.contains(uuid, task)) {
+                    jobs.computeIfAbsent(uuid, id -> new GenAiJob()
+                                    .uuid(id)
+                                    .priority(GenAiJob.Priority.BACKFILL))
+                            .task(task);
+                }
+            }
+            skipCount += results.getList().getEntries().size();
+            hasMoreItems = results.getList().getPagination().isHasMoreItems()
+                    && !results.getList().getEntries().isEmpty();
+        } while (hasMoreItems && !stopped);
+
+    }
+
+    /**
+     * Reads the start time of the last catch-up completed.
+     *
+     * @return The checkpoint, or {@code null} if no catch-up has been completed.
+     */
+    Instant readCheckpoint() throws IOException {
+        Path checkpointPath = Path.of(dataDir, CHECKPOINT_FILE);
+        if (!Files.exists(checkpointPath)) {
+            return null;
+        }
+        return Instant.ofEpochMilli(Long.parseLong(Files.readString(checkpointPath, StandardCharsets.UTF_8).trim()));
+    }
+
+    /**
+     * Stores the start time of the catch-up completed, replacing the previous checkpoint atomically.
+     */
+    void writeCheckpoint(Instant checkpoint) throws IOException {
+        Path checkpointPath = Path.of(dataDir, CHECKPOINT_FILE);
+        Files.createDirectories(checkpointPath.getParent());
+        Path temporaryPath = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temporaryPath, Long.toString(checkpoint.toEpochMilli()), StandardCharsets.UTF_8);
+        Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOG.info("Catch-up completed, checkpoint stored at {}", checkpoint);
+    }
+
+    /**
+     * Stops queuing jobs when the application is shutting down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.alfresco.genai.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code DeadLetterEndpoint} class is a Spring Boot Actuator endpoint to manage the dead letters of the
+ * {@link FailedTaskStore}, available in {@code /actuator/deadletters}:
+ * <ul>
+ *     <li>{@code GET} lists the dead letters.</li>
+ *     <li>{@code POST} replays the dead letters, optionally filtered by {@code task} and limited to {@code limit}
+ *     items.</li>
+ *     <li>{@code DELETE} removes the dead letters, optionally filtered by {@code task}.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "deadletters")
+public class DeadLetterEndpoint {
+
+    /**
+     * Autowired instance of {@link FailedTaskStore} for managing the dead letters.
+     */
+    @Autowired
+    FailedTaskStore failedTaskStore;
+
+    /**
+     * Lists the dead letters.
+     *
+     * @return The dead letters, in failure order.
+     */
+    @ReadOperation
+    public List<FailedTaskStore.FailedTask> deadLetters() {
+        return failedTaskStore.getDeadLetters();
+    }
+
+    /**
+     * Replays the dead letters, which are queued by the {@link FailedTaskSweeper} on its next run.
+     *
+     * @param task  The task of the dead letters to replay, or {@code null} to replay every task.
+     * @param limit Maximum number of dead letters to replay, or {@code null} to replay all of them.
+     * @return The number of replayed dead letters.
+     */
+    @WriteOperation
+    public Map<String, Integer> replay(@Nullable GenAiJob.Task task, @Nullable Integer limit) {
+        return Map.of("replayed", failedTaskStore.replayDeadLetters(task, limit == null ? Integer.MAX_VALUE : limit));
+    }
+
+    /**
+     * Removes the dead letters.
+     *
+     * @param task The task of the dead letters to remove, or {@code null} to remove every dead letter.
+     * @return The number of removed dead letters.
+     */
+    @DeleteOperation
+    public Map<String, Integer> purge(@Nullable GenAiJob.Task task) {
+        return Map.of("purged", failedTaskStore.purgeDeadLetters(task));
+    }
+
+}
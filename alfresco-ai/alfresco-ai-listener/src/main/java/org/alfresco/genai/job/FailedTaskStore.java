@@ -0,0 +1,412 @@
+package org.alfresco.genai.job;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code FailedTaskStore} class is a Spring component that keeps the GenAI tasks that failed, indexed by node UUID
+ * and task. A failed task is either waiting to be retried at a given time, after a transient failure, or stored as a
+ * dead letter, after a permanent failure or once the maximum number of attempts has been reached.
+ *
+ * <p>Retries are picked by the {@link FailedTaskSweeper} once they are due. Dead letters are kept until they are
+ * replayed or purged through the {@link DeadLetterEndpoint}, so the tasks lost during a GenAI outage can be applied
+ * again in bulk once the service is back.
+ *
+ * <p>The tasks of the running jobs and the claimed retries are recorded as well, until the job completes or fails, so
+ * a task interrupted by a crash or by a shutdown not waiting for the worker is retried as soon as the listener starts
+ * again.
+ *
+ * <p>The store is written to a journal file in the data folder, so failed tasks survive restarts.
+ */
+@Component
+public class FailedTaskStore {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FailedTaskStore.class);
+
+    /**
+     * Name of the journal file in the data folder.
+     */
+    static final String JOURNAL_FILE = "failed-tasks.journal";
+
+    /**
+     * Reason recorded for the tasks that were running when the listener stopped.
+     */
+    static final String UNFINISHED = "Unfinished at shutdown";
+
+    /**
+     * Folder to store local state of the listener obtained from configuration.
+     */
+    @Value("${genai.data.dir}")
+    String dataDir;
+
+    /**
+     * Minimum number of lines appended to the journal file before it is compacted obtained from configuration.
+     */
+    @Value("${genai.retry.journal.compact.lines}")
+    int compactLines;
+
+    /**
+     * Failed tasks indexed by node UUID and task, in failure order.
+     */
+    final Map<String, FailedTask> failedTasks = new LinkedHashMap<>();
+
+    /**
+     * Tasks of the running jobs indexed by node UUID and task, in start order.
+     */
+    final Map<String, FailedTask> runningTasks = new LinkedHashMap<>();
+
+    /**
+     * Path of the journal file.
+     */
+    Path journalPath;
+
+    /**
+     * Number of lines appended to the journal file since it was last compacted.
+     */
+    int appendedLines;
+
+    /**
+     * Replays the journal file during bean creation.
+     *
+     * @throws IOException If the journal file cannot be read.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        journalPath = Path.of(dataDir, JOURNAL_FILE);
+        Files.createDirectories(journalPath.getParent());
+        if (Files.exists(journalPath)) {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ", -1);
+                if ((fields[0].equals("F") || fields[0].equals("R")) && (fields.length == 8 || fields.length == 9)) {
+                    GenAiJob.Priority priority = fields.length == 9
+                            ? GenAiJob.Priority.valueOf(fields[8]) : GenAiJob.Priority.BACKFILL;
+                    FailedTask failedTask = new FailedTask(fields[1], GenAiJob.Task.valueOf(fields[2]), priority,
+                            decode(fields[6]), Integer.parseInt(fields[3]), Long.parseLong(fields[4]),
+                            Long.parseLong(fields[5]), decode(fields[7]));
+                    String key = key(failedTask.uuid(), failedTask.task());
+                    failedTasks.remove(key);
+                    runningTasks.remove(key);
+                    (fields[0].equals("F") ? failedTasks : runningTasks).put(key, failedTask);
+                } else if (fields[0].equals("C") && fields.length == 3) {
+                    String key = key(fields[1], GenAiJob.Task.valueOf(fields[2]));
+                    failedTasks.remove(key);
+                    runningTasks.remove(key);
+                }
+            }
+            if (!runningTasks.isEmpty()) {
+                LOG.info("Retrying {} GenAI tasks that were running when the listener stopped", runningTasks.size());
+            }
+            long now = System.currentTimeMillis();
+            runningTasks.values().forEach(runningTask -> failedTasks.put(key(runningTask.uuid(), runningTask.task()),
+                    new FailedTask(runningTask.uuid(), runningTask.task(), runningTask.priority(),
+                            runningTask.question(), runningTask.attempts(), now, runningTask.failedAt(),
+                            runningTask.reason())));
+            runningTasks.clear();
+            compact();
+        }
+        LOG.info("Failed task store loaded with {} retries and {} dead letters", getRetryCount(), getDeadLetterCount());
+    }
+
+    /**
+     * Stores a failed task to be retried after the given delay.
+     *
+     * @param job      The failed job.
+     * @param task     The failed task.
+     * @param attempts The number of attempts consumed by the task.
+     * @param delay    The delay in milliseconds before retrying the task.
+     * @param failure  The failure.
+     */
+    public synchronized void retryLater(GenAiJob job, GenAiJob.Task task, int attempts, long delay, Throwable failure) {
+        long now = System.currentTimeMillis();
+        put(new FailedTask(job.getUuid(), task, job.getPriority(), job.getQuestion(), attempts, now + delay, now,
+                failure.toString()));
+    }
+
+    /**
+     * Stores a task left unfinished when the listener is shutting down, to be retried as soon as the listener starts
+     * again. The interrupted attempt is not consumed.
+     *
+     * @param job  The unfinished job.
+     * @param task The unfinished task.
+     */
+    public synchronized void unfinished(GenAiJob job, GenAiJob.Task task) {
+        long now = System.currentTimeMillis();
+        put(new FailedTask(job.getUuid(), task, job.getPriority(), job.getQuestion(), job.getAttempt() - 1, now, now,
+                UNFINISHED));
+    }
+
+    /**
+     * Records the tasks of a job that is starting to run, so they are retried on the next start if the listener stops
+     * before the job completes or fails. The record is cleared once every task is removed or stored as failed.
+     *
+     * @param job The running job.
+     */
+    public synchronized void running(GenAiJob job) {
+        long now = System.currentTimeMillis();
+        for (GenAiJob.Task task : job.getTasks()) {
+            FailedTask runningTask = new FailedTask(job.getUuid(), task, job.getPriority(), job.getQuestion(),
+                    job.getAttempt() - 1, now, now, UNFINISHED);
+            runningTasks.put(key(job.getUuid(), task), runningTask);
+            append(line("R", runningTask));
+        }
+    }
+
+    /**
+     * Stores a failed task as a dead letter, to be replayed on demand.
+     *
+     * @param job      The failed job.
+     * @param task     The failed task.
+     * @param failure  The failure.
+     */
+    public synchronized void deadLetter(GenAiJob job, GenAiJob.Task task, Throwable failure) {
+        put(new FailedTask(job.getUuid(), task, job.getPriority(), job.getQuestion(), job.getAttempt(), 0,
+                System.currentTimeMillis(), failure.toString()));
+    }
+
+    /**
+     * Removes a task from the store, usually because it has been applied successfully, clearing the record of the
+     * running task as well.
+     *
+     * @param uuid The unique identifier of the node.
+     * @param task The task.
+     */
+    public synchronized void remove(String uuid, GenAiJob.Task task) {
+        boolean removed = failedTasks.remove(key(uuid, task)) != null;
+        if (runningTasks.remove(key(uuid, task)) != null || removed) {
+            append(String.join(" ", "C", uuid, task.name()));
+        }
+    }
+
+    /**
+     * Checks if a task of a node is stored, either waiting for a retry or as a dead letter.
+     *
+     * @param uuid The unique identifier of the node.
+     * @param task The task.
+     * @return {@code true} if the task is stored, {@code false} otherwise.
+     */
+    public synchronized boolean contains(String uuid, GenAiJob.Task task) {
+        return failedTasks.containsKey(key(uuid, task));
+    }
+
+    /**
+     * Claims and returns the retries that are due, the oldest first. Claimed retries are recorded as running tasks
+     * instead of being removed, so a retry claimed but not finished when the listener stops is retried again on the
+     * next start. The record is cleared once the task is removed or stored as failed again.
+     *
+     * @param maxItems Maximum number of retries to return.
+     * @return The due retries.
+     */
+    public synchronized List<FailedTask> claimDueRetries(int maxItems) {
+        long now = System.currentTimeMillis();
+        List<FailedTask> due = failedTasks.values().stream()
+                .filter(failedTask -> !failedTask.isDeadLetter() && failedTask.retryAt() <= now)
+                .sorted(Comparator.comparingLong(FailedTask::retryAt))
+                .limit(maxItems)
+                .collect(Collectors.toList());
+        for (FailedTask failedTask : due) {
+            String key = key(failedTask.uuid(), failedTask.task());
+            failedTasks.remove(key);
+            runningTasks.put(key, failedTask);
+            append(line("R", failedTask));
+        }
+        return due;
+    }
+
+    /**
+     * Gets the dead letters, in failure order.
+     *
+     * @return The dead letters.
+     */
+    public synchronized List<FailedTask> getDeadLetters() {
+        return failedTasks.values().stream()
+                .filter(FailedTask::isDeadLetter)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Schedules the dead letters to be retried immediately, restarting their attempt count. Replayed dead letters get
+     * the backfill priority, so a bulk replay doesn't delay the enrichment of new content.
+     *
+     * @param task     The task of the dead letters to replay, or {@code null} to replay every task.
+     * @param maxItems Maximum number of dead letters to replay.
+     * @return The number of replayed dead letters.
+     */
+    public synchronized int replayDeadLetters(GenAiJob.Task task, int maxItems) {
+        long now = System.currentTimeMillis();
+        List<FailedTask> replayed = getDeadLetters().stream()
+                .filter(failedTask -> task == null || failedTask.task() == task)
+                .limit(maxItems)
+                .collect(Collectors.toList());
+        replayed.forEach(failedTask -> put(new FailedTask(failedTask.uuid(), failedTask.task(),
+                GenAiJob.Priority.BACKFILL, failedTask.question(), 0, now, failedTask.failedAt(),
+                failedTask.reason())));
+        return replayed.size();
+    }
+
+    /**
+     * Removes the dead letters.
+     *
+     * @param task The task of the dead letters to remove, or {@code null} to remove every dead letter.
+     * @return The number of removed dead letters.
+     */
+    public synchronized int purgeDeadLetters(GenAiJob.Task task) {
+        List<FailedTask> purged = getDeadLetters().stream()
+                .filter(failedTask -> task == null || failedTask.task() == task)
+                .collect(Collectors.toList());
+        purged.forEach(failedTask -> remove(failedTask.uuid(), failedTask.task()));
+        return purged.size();
+    }
+
+    /**
+     * Gets the number of failed tasks waiting to be retried.
+     *
+     * @return The number of retries.
+     */
+    public synchronized int getRetryCount() {
+        return (int) failedTasks.values().stream().filter(failedTask -> !failedTask.isDeadLetter()).count();
+    }
+
+    /**
+     * Gets the number of dead letters.
+     *
+     * @return The number of dead letters.
+     */
+    public synchronized int getDeadLetterCount() {
+        return (int) failedTasks.values().stream().filter(FailedTask::isDeadLetter).count();
+    }
+
+    /**
+     * Rewrites the journal file with the failed and running tasks currently held in memory.
+     *
+     * @throws IOException If the journal file cannot be written.
+     */
+    public synchronized void compact() throws IOException {
+        List<String> lines = new ArrayList<>();
+        failedTasks.values().forEach(failedTask -> lines.add(line("F", failedTask)));
+        runningTasks.values().forEach(runningTask -> lines.add(line("R", runningTask)));
+        Path compactedPath = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        Files.write(compactedPath, lines, StandardCharsets.UTF_8);
+        Files.move(compactedPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        appendedLines = 0;
+    }
+
+    /**
+     * Rewrites the journal file once the lines appended since it was last compacted exceed both the configured minimum
+     * and the number of tasks held in memory, so the journal is rewritten in proportion to its growth instead of on
+     * every change, and it never holds more than about twice the lines needed to rebuild the store.
+     *
+     * @throws IOException If the journal file cannot be written.
+     */
+    public synchronized void compactIfGrown() throws IOException {
+        if (appendedLines > Math.max(compactLines, failedTasks.size() + runningTasks.size())) {
+            compact();
+        }
+    }
+
+    /**
+     * Stores a failed task, replacing any previous failure of the same task for the node and clearing the record of
+     * the running task.
+     */
+    void put(FailedTask failedTask) {
+        String key = key(failedTask.uuid(), failedTask.task());
+        failedTasks.remove(key);
+        runningTasks.remove(key);
+        failedTasks.put(key, failedTask);
+        append(line("F", failedTask));
+    }
+
+    /**
+     * Builds the key of a failed task.
+     */
+    static String key(String uuid, GenAiJob.Task task) {
+        return uuid + ":" + task.name();
+    }
+
+    /**
+     * Builds the journal line recording a failed ({@code F}) or running ({@code R}) task. Free text fields are Base64
+     * encoded to keep the line format. The priority is the last field, so lines written without it are read with the
+     * backfill priority.
+     */
+    static String line(String type, FailedTask failedTask) {
+        return String.join(" ", type, failedTask.uuid(), failedTask.task().name(),
+                String.valueOf(failedTask.attempts()),
+                String.valueOf(failedTask.retryAt()),
+                String.valueOf(failedTask.failedAt()),
+                encode(failedTask.question()),
+                encode(failedTask.reason()),
+                failedTask.priority().name());
+    }
+
+    /**
+     * Encodes a free text field of the journal; {@code null} values are encoded as an empty field.
+     */
+    static String encode(String value) {
+        return value == null ? "" : Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a free text field of the journal.
+     */
+    static String decode(String value) {
+        return value.isEmpty() ? null : new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a line to the journal file.
+     */
+    void append(String line) {
+        appendedLines++;
+        try {
+            Files.writeString(journalPath, line + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warn("Error writing failed task journal {}", journalPath, e);
+        }
+    }
+
+    /**
+     * A failed GenAI task.
+     *
+     * @param uuid     The unique identifier of the node.
+     * @param task     The failed task.
+     * @param priority The priority of the failed job, restored when the task is retried.
+     * @param question The question to be answered by a prompt task, or {@code null}.
+     * @param attempts The number of attempts made.
+     * @param retryAt  Time in milliseconds when the task is retried, or {@code 0} for dead letters.
+     * @param failedAt Time in milliseconds of the last failure.
+     * @param reason   Description of the last failure.
+     */
+    public record FailedTask(String uuid, GenAiJob.Task task, GenAiJob.Priority priority, String question,
+                             int attempts, long retryAt, long failedAt, String reason) {
+
+        /**
+         * Checks if the task is a dead letter, waiting to be replayed on demand.
+         *
+         * @return {@code true} if the task is a dead letter, {@code false} if it is waiting to be retried.
+         */
+        public boolean isDeadLetter() {
+            return retryAt == 0;
+        }
+    }
+
+}
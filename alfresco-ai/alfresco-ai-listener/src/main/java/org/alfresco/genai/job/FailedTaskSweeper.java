@@ -0,0 +1,71 @@
+package org.alfresco.genai.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code FailedTaskSweeper} class is a Spring component that periodically queues the failed tasks whose retry is
+ * due, according to the {@link FailedTaskStore}. Retried tasks keep the priority of the job that failed, so a question
+ * asked by a user or a task kept at shutdown is not served behind the backfill of existing content.
+ */
+@Component
+public class FailedTaskSweeper {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FailedTaskSweeper.class);
+
+    /**
+     * Maximum number of due retries queued on every sweep obtained from configuration.
+     */
+    @Value("${genai.retry.sweep.batch.size}")
+    int batchSize;
+
+    /**
+     * Autowired instance of {@link FailedTaskStore} for retrieving the due retries.
+     */
+    @Autowired
+    FailedTaskStore failedTaskStore;
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for queuing the retried tasks.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Queues a batch of due retries. The journal of the store is compacted on the sweeps in which it has grown enough,
+     * whether or not any retry is due.
+     */
+    @Scheduled(fixedDelayString = "${genai.retry.sweep.interval}", timeUnit = TimeUnit.SECONDS)
+    public void sweep() {
+        try {
+            failedTaskStore.compactIfGrown();
+        } catch (IOException e) {
+            LOG.warn("Error compacting failed task journal", e);
+        }
+        List<FailedTaskStore.FailedTask> due = failedTaskStore.claimDueRetries(batchSize);
+        if (due.isEmpty()) {
+            return;
+        }
+        LOG.info("Retrying {} failed GenAI tasks", due.size());
+        for (FailedTaskStore.FailedTask failedTask : due) {
+            jobDispatcher.submit(new GenAiJob()
+                    .uuid(failedTask.uuid())
+                    .task(failedTask.task())
+                    .question(failedTask.question())
+                    .priority(failedTask.priority())
+                    .attempt(failedTask.attempts() + 1));
+        }
+    }
+
+}
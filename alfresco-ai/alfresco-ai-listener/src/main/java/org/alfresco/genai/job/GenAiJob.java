@@ -0,0 +1,171 @@
+package org.alfresco.genai.job;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The {@code GenAiJob} class represents a unit of GenAI work requested for a node of the Alfresco Repository. It
+ * contains the node UUID, the tasks to be applied to the node and, for prompt tasks, the question to be answered. Jobs
+ * retrying failed tasks also carry the number of the attempt.
+ *
+ * <p>This class follows the builder pattern, allowing for a fluent and readable way to construct instances.
+ */
+public class GenAiJob {
+
+    /**
+     * Enumeration of supported GenAI tasks.
+     */
+    public enum Task {
+        SUMMARY, CLASSIFY, PROMPT, DESCRIBE
+    }
+
+    /**
+     * Enumeration of job priorities, from the most to the least urgent.
+     */
+    public enum Priority {
+        /**
+         * Jobs requested by a user waiting for the result, such as answering a question.
+         */
+        INTERACTIVE,
+        /**
+         * Jobs enriching new or updated content.
+         */
+        ENRICHMENT,
+        /**
+         * Jobs reprocessing existing content.
+         */
+        BACKFILL
+    }
+
+    /**
+     * The unique identifier of the node to be processed.
+     */
+    private String uuid;
+
+    /**
+     * The tasks to be applied to the node.
+     */
+    private final Set<Task> tasks = EnumSet.noneOf(Task.class);
+
+    /**
+     * The question to be answered when the job includes the {@link Task#PROMPT} task.
+     */
+    private String question;
+
+    /**
+     * The priority of the job.
+     */
+    private Priority priority = Priority.ENRICHMENT;
+
+    /**
+     * The number of the attempt to run the job, starting with 1.
+     */
+    private int attempt = 1;
+
+    /**
+     * Gets the unique identifier of the node to be processed.
+     *
+     * @return The node UUID.
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Sets the unique identifier of the node to be processed.
+     *
+     * @param uuid The node UUID.
+     * @return This {@code GenAiJob} instance for method chaining.
+     */
+    public GenAiJob uuid(String uuid) {
+        this.uuid = uuid;
+        return this;
+    }
+
+    /**
+     * Gets the tasks to be applied to the node.
+     *
+     * @return An unmodifiable view of the tasks.
+     */
+    public Set<Task> getTasks() {
+        return Collections.unmodifiableSet(tasks);
+    }
+
+    /**
+     * Adds a task to be applied to the node.
+     *
+     * @param task The task to add.
+     * @return This {@code GenAiJob} instance for method chaining.
+     */
+    public GenAiJob task(Task task) {
+        this.tasks.add(task);
+        return this;
+    }
+
+    /**
+     * Gets the question to be answered by the prompt task.
+     *
+     * @return The question, or {@code null} when the job does not include a prompt task.
+     */
+    public String getQuestion() {
+        return question;
+    }
+
+    /**
+     * Sets the question to be answered by the prompt task.
+     *
+     * @param question The question.
+     * @return This {@code GenAiJob} instance for method chaining.
+     */
+    public GenAiJob question(String question) {
+        this.question = question;
+        return this;
+    }
+
+    /**
+     * Gets the priority of the job.
+     *
+     * @return The priority.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority of the job.
+     *
+     * @param priority The priority.
+     * @return This {@code GenAiJob} instance for method chaining.
+     */
+    public GenAiJob priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Gets the number of the attempt to run the job.
+     *
+     * @return The attempt number, starting with 1.
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Sets the number of the attempt to run the job.
+     *
+     * @param attempt The attempt number, starting with 1.
+     * @return This {@code GenAiJob} instance for method chaining.
+     */
+    public GenAiJob attempt(int attempt) {
+        this.attempt = attempt;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return tasks + " " + uuid;
+    }
+
+}
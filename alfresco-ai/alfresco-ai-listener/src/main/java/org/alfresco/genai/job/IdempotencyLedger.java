@@ -0,0 +1,279 @@
+package org.alfresco.genai.job;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code IdempotencyLedger} class is a Spring component that records the GenAI tasks completed for a node, together
+ * with a fingerprint of the content version the task was applied to. Before retrieving any content, the
+ * {@link JobProcessor} checks the ledger, so duplicated events (such as ActiveMQ redeliveries or the same document being
+ * handled by both content and rendition handlers) don't download the content nor run the same task twice on the same
+ * content.
+ *
+ * <p>The ledger is kept in memory and appended to a file in the data folder, so it survives restarts. The number of
+ * entries is bounded, evicting the oldest ones first, and entries older than the configured time to live are evicted
+ * periodically. The file is compacted when it holds as many superseded lines as the maximum number of entries.
+ *
+ * <p>The entries of a node are invalidated when its content changes, since the content version of a document without a
+ * version label does not tell apart contents of the same type and size.
+ */
+@Component
+public class IdempotencyLedger {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyLedger.class);
+
+    /**
+     * Name of the ledger file in the data folder.
+     */
+    static final String LEDGER_FILE = "idempotency.ledger";
+
+    /**
+     * Fingerprint of the ledger lines invalidating the entry of a node and a task.
+     */
+    static final String INVALIDATED = "-";
+
+    /**
+     * Enables or disables the ledger obtained from configuration.
+     */
+    @Value("${genai.idempotency.enabled}")
+    boolean enabled;
+
+    /**
+     * Time to live in seconds of the ledger entries obtained from configuration.
+     */
+    @Value("${genai.idempotency.ttl}")
+    long ttl;
+
+    /**
+     * Maximum number of entries kept in the ledger obtained from configuration.
+     */
+    @Value("${genai.idempotency.max.entries}")
+    int maxEntries;
+
+    /**
+     * Folder to store local state of the listener obtained from configuration.
+     */
+    @Value("${genai.data.dir}")
+    String dataDir;
+
+    /**
+     * Latest completed entry for every node and task, indexed by {@code uuid:task}, the oldest first.
+     */
+    final Map<String, Entry> entries = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Number of lines appended to the ledger file since it was last compacted.
+     */
+    int appendedLines;
+
+    /**
+     * Path of the ledger file.
+     */
+    Path ledgerPath;
+
+    /**
+     * Loads the non-expired entries of the ledger file during bean creation.
+     *
+     * @throws IOException If the ledger file cannot be read.
+     */
+    @PostConstruct
+    public synchronized void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        ledgerPath = Path.of(dataDir, LEDGER_FILE);
+        Files.createDirectories(ledgerPath.getParent());
+        if (Files.exists(ledgerPath)) {
+            long expiration = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttl);
+            for (String line : Files.readAllLines(ledgerPath, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ");
+                if (fields.length == 4 && fields[2].equals(INVALIDATED)) {
+                    entries.remove(key(fields[0], fields[1]));
+                } else if (fields.length == 4 && Long.parseLong(fields[3]) > expiration) {
+                    put(key(fields[0], fields[1]), new Entry(fields[2], Long.parseLong(fields[3])));
+                }
+            }
+            compact();
+        }
+        LOG.info("Idempotency ledger loaded with {} entries", entries.size());
+    }
+
+    /**
+     * Checks if the ledger is enabled.
+     *
+     * @return {@code true} if completed tasks are recorded and checked, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks if a task has already been completed for the node on the same content.
+     *
+     * @param uuid        The unique identifier of the node.
+     * @param task        The GenAI task.
+     * @param fingerprint The fingerprint of the content the task is going to be applied to.
+     * @return {@code true} if the task has already been completed on the same content, {@code false} otherwise.
+     */
+    public synchronized boolean isCompleted(String uuid, GenAiJob.Task task, String fingerprint) {
+        if (!enabled) {
+            return false;
+        }
+        Entry entry = entries.get(key(uuid, task.name()));
+        return entry != null
+                && entry.fingerprint.equals(fingerprint)
+                && entry.timestamp > System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttl);
+    }
+
+    /**
+     * Records a task as completed for the node on the given content.
+     *
+     * @param uuid        The unique identifier of the node.
+     * @param task        The GenAI task.
+     * @param fingerprint The fingerprint of the content the task has been applied to.
+     */
+    public synchronized void recordCompleted(String uuid, GenAiJob.Task task, String fingerprint) {
+        if (!enabled) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        put(key(uuid, task.name()), new Entry(fingerprint, timestamp));
+        append(uuid, task, fingerprint, timestamp);
+    }
+
+    /**
+     * Removes the tasks recorded as completed for a node, usually because its content has changed.
+     *
+     * @param uuid The unique identifier of the node.
+     */
+    public synchronized void invalidate(String uuid) {
+        if (!enabled) {
+            return;
+        }
+        for (GenAiJob.Task task : GenAiJob.Task.values()) {
+            if (entries.remove(key(uuid, task.name())) != null) {
+                append(uuid, task, INVALIDATED, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Appends a line to the ledger file, compacting the file instead once it holds too many superseded lines.
+     */
+    void append(String uuid, GenAiJob.Task task, String fingerprint, long timestamp) {
+        try {
+            if (++appendedLines > maxEntries) {
+                compact();
+            } else {
+                Files.writeString(ledgerPath,
+                        String.join(" ", uuid, task.name(), fingerprint, String.valueOf(timestamp)) + "\n",
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            LOG.warn("Error writing idempotency ledger {}", ledgerPath, e);
+        }
+    }
+
+    /**
+     * Stores an entry as the newest one, evicting the oldest entry when the maximum number of entries is exceeded.
+     */
+    void put(String key, Entry entry) {
+        entries.remove(key);
+        entries.put(key, entry);
+    }
+
+    /**
+     * Evicts expired entries and compacts the ledger file.
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public synchronized void evict() {
+        if (!enabled) {
+            return;
+        }
+        long expiration = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttl);
+        entries.values().removeIf(entry -> entry.timestamp <= expiration);
+        try {
+            compact();
+        } catch (IOException e) {
+            LOG.warn("Error compacting idempotency ledger {}", ledgerPath, e);
+        }
+    }
+
+    /**
+     * Rewrites the ledger file with the entries currently held in memory.
+     *
+     * @throws IOException If the ledger file cannot be written.
+     */
+    synchronized void compact() throws IOException {
+        List<String> lines = new ArrayList<>();
+        entries.forEach((key, entry) ->
+                lines.add(String.join(" ", key.replace(':', ' '), entry.fingerprint, String.valueOf(entry.timestamp))));
+        Path compactedPath = ledgerPath.resolveSibling(LEDGER_FILE + ".tmp");
+        Files.write(compactedPath, lines, StandardCharsets.UTF_8);
+        Files.move(compactedPath, ledgerPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        appendedLines = 0;
+    }
+
+    /**
+     * Computes the SHA-256 fingerprint of a content version of a node, optionally combined with additional parameters
+     * of the task, so a task can be checked before its content is retrieved.
+     *
+     * @param version    The version of the content of the node.
+     * @param parameters Additional parameters to be included in the fingerprint.
+     * @return The hexadecimal representation of the fingerprint.
+     */
+    public static String fingerprintVersion(String version, String... parameters) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(("version:" + version).getBytes(StandardCharsets.UTF_8));
+        for (String parameter : parameters) {
+            digest.update(parameter.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Builds the index key for a node and a task.
+     */
+    static String key(String uuid, String task) {
+        return uuid + ":" + task;
+    }
+
+    /**
+     * A completed task: the fingerprint of the content and the completion time in milliseconds.
+     */
+    record Entry(String fingerprint, long timestamp) {
+    }
+
+}
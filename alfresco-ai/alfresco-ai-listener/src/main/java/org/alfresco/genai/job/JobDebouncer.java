@@ -0,0 +1,176 @@
+package org.alfresco.genai.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code JobDebouncer} class is a Spring component that coalesces bursts of events for the same node into a single
+ * {@link GenAiJob}. Jobs are held per node UUID during a quiet window that restarts with every new event for the node,
+ * and the tasks of the collapsed jobs are merged, keeping the most urgent priority. The job is handed to the
+ * {@link JobDispatcher} once the window elapses without new events or once the maximum delay since the first event is
+ * reached, so a node that keeps changing is still processed.
+ *
+ * <p>Since the job retrieves the node content when it runs, the GenAI service always works on the latest content.
+ */
+@Component
+public class JobDebouncer {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(JobDebouncer.class);
+
+    /**
+     * Quiet window in seconds to wait for further events of the same node obtained from configuration.
+     */
+    @Value("${genai.jobs.debounce.window}")
+    long window;
+
+    /**
+     * Maximum delay in seconds between the first event of a node and the dispatching of its job obtained from
+     * configuration.
+     */
+    @Value("${genai.jobs.debounce.max.delay}")
+    long maxDelay;
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for queuing the coalesced jobs.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Jobs waiting for the end of their debounce window, indexed by node UUID.
+     */
+    final Map<String, PendingJob> pendingJobs = new HashMap<>();
+
+    /**
+     * The scheduler dispatching jobs when their debounce window elapses.
+     */
+    ScheduledExecutorService scheduler;
+
+    /**
+     * Initializes the scheduler during bean creation.
+     */
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "genai-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Holds a job until no other event for the same node has been received during the debounce window. When a job
+     * for the node is already waiting, the tasks are merged into it and the window is restarted.
+     *
+     * @param job The job to be debounced.
+     */
+    public void submit(GenAiJob job) {
+        if (window <= 0) {
+            jobDispatcher.submit(job);
+            return;
+        }
+        synchronized (pendingJobs) {
+            long now = System.currentTimeMillis();
+            PendingJob pending = pendingJobs.get(job.getUuid());
+            if (pending == null) {
+                pending = new PendingJob(job, now);
+                pendingJobs.put(job.getUuid(), pending);
+            } else {
+                LOG.debug("Coalescing job {} with pending job {}", job, pending.job);
+                pending.future.cancel(false);
+                job.getTasks().forEach(pending.job::task);
+                if (job.getPriority().compareTo(pending.job.getPriority()) < 0) {
+                    pending.job.priority(job.getPriority());
+                }
+            }
+            long delay = Math.max(0, Math.min(
+                    TimeUnit.SECONDS.toMillis(window),
+                    pending.firstSeen + TimeUnit.SECONDS.toMillis(maxDelay) - now));
+            PendingJob scheduled = pending;
+            pending.future = scheduler.schedule(() -> dispatch(scheduled), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Hands a pending job to the {@link JobDispatcher}, unless it has already been dispatched by a previous run.
+     *
+     * @param pending The pending job.
+     */
+    void dispatch(PendingJob pending) {
+        synchronized (pendingJobs) {
+            if (!pendingJobs.remove(pending.job.getUuid(), pending)) {
+                return;
+            }
+        }
+        jobDispatcher.submit(pending.job);
+    }
+
+    /**
+     * Gets the number of jobs waiting for the end of their debounce window.
+     *
+     * @return The number of pending jobs.
+     */
+    public int getPendingCount() {
+        synchronized (pendingJobs) {
+            return pendingJobs.size();
+        }
+    }
+
+    /**
+     * Stops the scheduler when the application is shutting down, keeping the pending jobs for the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        List<PendingJob> pending;
+        synchronized (pendingJobs) {
+            pending = new ArrayList<>(pendingJobs.values());
+            pendingJobs.clear();
+        }
+        pending.forEach(pendingJob -> jobDispatcher.keepForRestart(pendingJob.job));
+    }
+
+    /**
+     * A job waiting for the end of its debounce window.
+     */
+    static class PendingJob {
+
+        /**
+         * The job collecting the tasks of every coalesced event.
+         */
+        final GenAiJob job;
+
+        /**
+         * Time in milliseconds when the first event of the node was received.
+         */
+        final long firstSeen;
+
+        /**
+         * The scheduled dispatching of the job.
+         */
+        ScheduledFuture<?> future;
+
+        PendingJob(GenAiJob job, long firstSeen) {
+            this.job = job;
+            this.firstSeen = firstSeen;
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package org.alfresco.genai.job;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.alfresco.genai.service.CircuitBreakerOpenException;
+import org.alfresco.genai.service.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code JobDispatcher} class is a Spring component that decouples Alfresco event consumption from GenAI
+ * processing. Event handlers submit {@link GenAiJob} instances to a bounded in-process {@link PriorityJobQueue}, and a
+ * fixed pool of worker threads runs them through the {@link JobProcessor}.
+ *
+ * <p>Submitting a job returns as soon as the job has been queued, so the event consumer is not blocked by long GenAI
+ * requests. When the queue is full, submission blocks the caller until a slot is available, keeping the number of
+ * pending jobs in memory bounded.
+ *
+ * <p>Workers serve jobs according to their priority, and an additional set of workers is dedicated to interactive
+ * jobs, so a user question doesn't wait for long-running summaries to complete.
+ *
+ * <p>Jobs of the same node are run one at a time and in arrival order through the {@link NodeLanes}, so the result of
+ * an older event never overwrites the result of a newer one, while jobs of different nodes run in parallel.
+ *
+ * <p>Failed tasks are stored in the {@link FailedTaskStore}, to be retried with backoff according to the
+ * {@link RetryPolicy} or kept as dead letters to be replayed on demand.
+ *
+ * <p>On shutdown, once event consumption has stopped, the dispatcher drains gracefully: workers stop taking jobs and
+ * the tasks of the queued and parked jobs are stored in the {@link FailedTaskStore}, whose journal replays them as soon
+ * as the listener starts again. The running jobs are given time to finish up to a deadline, and the workers still
+ * running a job afterwards are interrupted. The tasks of every job are recorded in the store as running before the job
+ * starts, so a job whose worker is blocked and never returns is retried on the next start as well.
+ */
+@Component
+public class JobDispatcher {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(JobDispatcher.class);
+
+    /**
+     * Time in seconds to wait for the interrupted workers to keep their running jobs for the next start.
+     */
+    static final long INTERRUPT_TIMEOUT = 10;
+
+    /**
+     * Number of worker threads running GenAI jobs of any priority obtained from configuration.
+     */
+    @Value("${genai.jobs.workers}")
+    int workers;
+
+    /**
+     * Number of additional worker threads running only interactive GenAI jobs obtained from configuration.
+     */
+    @Value("${genai.jobs.workers.interactive}")
+    int interactiveWorkers;
+
+    /**
+     * Maximum number of jobs waiting for a worker obtained from configuration.
+     */
+    @Value("${genai.jobs.queue.capacity}")
+    int queueCapacity;
+
+    /**
+     * Relative weights of the interactive, enrichment and backfill priorities obtained from configuration.
+     */
+    @Value("${genai.jobs.priority.weights}")
+    int[] priorityWeights;
+
+    /**
+     * Maximum time in seconds a job waits before being served regardless of its priority obtained from configuration.
+     */
+    @Value("${genai.jobs.priority.max.wait}")
+    long priorityMaxWait;
+
+    /**
+     * Number of stripes the lanes ordering the jobs of every node are partitioned into obtained from configuration.
+     */
+    @Value("${genai.jobs.lanes.stripes}")
+    int laneStripes;
+
+    /**
+     * Maximum time in seconds to wait for the running jobs to finish on shutdown obtained from configuration.
+     */
+    @Value("${genai.jobs.drain.timeout}")
+    long drainTimeout;
+
+    /**
+     * Autowired instance of {@link JobProcessor} for running the tasks of a job.
+     */
+    @Autowired
+    JobProcessor jobProcessor;
+
+    /**
+     * Autowired instance of {@link RetryPolicy} for deciding whether a failed task is retried.
+     */
+    @Autowired
+    RetryPolicy retryPolicy;
+
+    /**
+     * Autowired instance of {@link FailedTaskStore} for storing the failed tasks to be retried or replayed.
+     */
+    @Autowired
+    FailedTaskStore failedTaskStore;
+
+    /**
+     * The queue of jobs waiting for a worker.
+     */
+    PriorityJobQueue queue;
+
+    /**
+     * The lanes running the jobs of every node in order.
+     */
+    NodeLanes nodeLanes;
+
+    /**
+     * The worker threads.
+     */
+    final List<Thread> workerThreads = new ArrayList<>();
+
+    /**
+     * The job run by every worker thread.
+     */
+    final Map<Thread, GenAiJob> runningJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the dispatcher is shutting down, so new jobs are kept for the next start instead of being queued.
+     */
+    volatile boolean draining;
+
+    /**
+     * Initializes the job queue and starts the worker threads during bean creation.
+     */
+    @PostConstruct
+    public void init() {
+        queue = new PriorityJobQueue(queueCapacity, priorityWeights, priorityMaxWait);
+        nodeLanes = new NodeLanes(laneStripes);
+        for (int i = 1; i <= workers; i++) {
+            startWorker("genai-job-" + i, EnumSet.allOf(GenAiJob.Priority.class));
+        }
+        for (int i = 1; i <= interactiveWorkers; i++) {
+            startWorker("genai-job-interactive-" + i, EnumSet.of(GenAiJob.Priority.INTERACTIVE));
+        }
+    }
+
+    /**
+     * Starts a worker thread serving the given priorities.
+     */
+    void startWorker(String name, Set<GenAiJob.Priority> priorities) {
+        Thread thread = new Thread(() -> work(priorities), name);
+        thread.setDaemon(true);
+        thread.start();
+        workerThreads.add(thread);
+    }
+
+    /**
+     * Runs jobs of the given priorities until the queue is closed or the worker thread is interrupted. A job of a node
+     * with a running job is parked, and it is queued again once the running job finishes, so it is served according to
+     * its priority by a worker allowed to run it. Once the queue is closed, the job is kept for the next start instead.
+     */
+    void work(Set<GenAiJob.Priority> priorities) {
+        while (!Thread.currentThread().isInterrupted()) {
+            GenAiJob job;
+            try {
+                job = queue.take(priorities);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) {
+                return;
+            }
+            if (!nodeLanes.acquire(job)) {
+                LOG.debug("Job {} parked until the running job of the node finishes", job);
+                continue;
+            }
+            run(job);
+            for (job = nodeLanes.release(job.getUuid()); job != null && !queue.requeue(job);
+                 job = nodeLanes.release(job.getUuid())) {
+                keepForRestart(job);
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks of a job, handling the failed tasks. The tasks are recorded as running in the store until they
+     * are handled, so they survive a listener stopping in the middle of the job. Tasks failed because the worker was
+     * stopped after the drain timeout are kept for the next start without consuming an attempt. When the job fails as
+     * a whole, every task of the job is handled as failed, so the failure is retried or stored as dead letter instead
+     * of being lost.
+     */
+    void run(GenAiJob job) {
+        runningJobs.put(Thread.currentThread(), job);
+        failedTaskStore.running(job);
+        try {
+            Map<GenAiJob.Task, Exception> failures;
+            try {
+                failures = jobProcessor.process(job);
+            } catch (RuntimeException e) {
+                LOG.error("Error running job {}", job, e);
+                failures = new EnumMap<>(GenAiJob.Task.class);
+                for (GenAiJob.Task task : job.getTasks()) {
+                    failures.put(task, e);
+                }
+            }
+            for (GenAiJob.Task task : job.getTasks()) {
+                if (failures.containsKey(task) && draining && Thread.currentThread().isInterrupted()) {
+                    failedTaskStore.unfinished(job, task);
+                } else if (failures.containsKey(task)) {
+                    handleFailure(job, task, failures.get(task));
+                } else {
+                    failedTaskStore.remove(job.getUuid(), task);
+                }
+            }
+        } finally {
+            runningJobs.remove(Thread.currentThread());
+        }
+    }
+
+    /**
+     * Stores the tasks of a job that is not going to be run before shutdown, to be retried on the next start.
+     *
+     * @param job The job to be kept.
+     */
+    public void keepForRestart(GenAiJob job) {
+        job.getTasks().forEach(task -> failedTaskStore.unfinished(job, task));
+    }
+
+    /**
+     * Stores a failed task to be retried with backoff when the failure is transient and the maximum number of
+     * attempts has not been reached; otherwise, the task is stored as a dead letter. Tasks rejected by an open circuit
+     * breaker are deferred until the circuit allows a probe request, without consuming an attempt.
+     *
+     * @param job     The failed job.
+     * @param task    The failed task.
+     * @param failure The failure.
+     */
+    void handleFailure(GenAiJob job, GenAiJob.Task task, Exception failure) {
+        if (failure instanceof CircuitBreakerOpenException circuitOpen) {
+            long delay = circuitOpen.getRetryAfter() + retryPolicy.getDelay(1);
+            LOG.info("Task {} deferred for node {} while the GenAI endpoint is not available, retrying in {} seconds",
+                    task, job.getUuid(), TimeUnit.MILLISECONDS.toSeconds(delay));
+            failedTaskStore.retryLater(job, task, job.getAttempt() - 1, delay, failure);
+        } else if (retryPolicy.shouldRetry(failure, job.getAttempt())) {
+            long delay = retryPolicy.getDelay(job.getAttempt());
+            LOG.warn("Task {} failed for node {} on attempt {}, retrying in {} seconds: {}",
+                    task, job.getUuid(), job.getAttempt(), TimeUnit.MILLISECONDS.toSeconds(delay), failure.toString());
+            failedTaskStore.retryLater(job, task, job.getAttempt(), delay, failure);
+        } else {
+            LOG.error("Task {} failed for node {} on attempt {}, storing it as dead letter",
+                    task, job.getUuid(), job.getAttempt(), failure);
+            failedTaskStore.deadLetter(job, task, failure);
+        }
+    }
+
+    /**
+     * Queues a job to be run by the worker pool. Blocks when the queue is full. Jobs submitted while the dispatcher is
+     * shutting down are kept for the next start.
+     *
+     * @param job The job to be run.
+     */
+    public void submit(GenAiJob job) {
+        if (draining) {
+            keepForRestart(job);
+            return;
+        }
+        LOG.debug("Queuing job {} with priority {}", job, job.getPriority());
+        try {
+            queue.put(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free slot in the job queue", e);
+        }
+    }
+
+    /**
+     * Gets the number of jobs waiting for a worker, including the jobs parked behind a running job of the same node.
+     *
+     * @return The number of queued jobs.
+     */
+    public int getQueueSize() {
+        return queue.size() + nodeLanes.getParkedCount();
+    }
+
+    /**
+     * Gets the number of jobs parked behind a running job of the same node.
+     *
+     * @return The number of parked jobs.
+     */
+    public int getParkedCount() {
+        return nodeLanes.getParkedCount();
+    }
+
+    /**
+     * Gets the number of jobs with the given priority waiting for a worker.
+     *
+     * @param priority The priority.
+     * @return The number of queued jobs with the priority.
+     */
+    public int getQueueSize(GenAiJob.Priority priority) {
+        return queue.size(priority);
+    }
+
+    /**
+     * Drains the dispatcher when the application is shutting down: workers stop taking jobs, and the tasks of the
+     * queued and parked jobs are kept for the next start right away. The running jobs are given time to finish up to
+     * the drain timeout; the workers still running a job after the deadline are interrupted, and the tasks of their
+     * jobs, recorded as running, are retried on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        draining = true;
+        queue.close();
+        List<GenAiJob> unfinished = new ArrayList<>(queue.drain());
+        unfinished.addAll(nodeLanes.drain());
+        unfinished.forEach(this::keepForRestart);
+        LOG.info("Draining GenAI jobs, {} running, {} waiting jobs kept for the next start",
+                runningJobs.size(), unfinished.size());
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(drainTimeout);
+        try {
+            join(deadline);
+            int interrupted = runningJobs.size();
+            workerThreads.forEach(Thread::interrupt);
+            join(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(INTERRUPT_TIMEOUT));
+            LOG.info("GenAI jobs drained, {} running jobs interrupted and kept for the next start", interrupted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the worker threads to finish until the given deadline.
+     */
+    void join(long deadline) throws InterruptedException {
+        for (Thread workerThread : workerThreads) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return;
+            }
+            workerThread.join(remaining);
+        }
+    }
+
+}
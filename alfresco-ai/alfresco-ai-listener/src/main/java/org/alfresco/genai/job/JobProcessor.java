@@ -0,0 +1,579 @@
+package org.alfresco.genai.job;
+
+import org.alfresco.core.model.Node;
+import org.alfresco.genai.metrics.PipelineMetrics;
+import org.alfresco.genai.model.Answer;
+import org.alfresco.genai.model.Description;
+import org.alfresco.genai.model.Enrichment;
+import org.alfresco.genai.model.Summary;
+import org.alfresco.genai.model.Term;
+import org.alfresco.genai.service.ContentService;
+import org.alfresco.genai.service.ContentStream;
+import org.alfresco.genai.service.GenAiClient;
+import org.alfresco.genai.service.NodeChanges;
+import org.alfresco.genai.service.NodeUpdateService;
+import org.alfresco.genai.service.PictureDownscaler;
+import org.alfresco.genai.service.RenditionService;
+import org.alfresco.genai.service.ScratchSpace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.alfresco.genai.metrics.PipelineMetrics.*;
+
+/**
+ * The {@code JobProcessor} class is a Spring component that runs the tasks of a {@link GenAiJob}. It retrieves the
+ * content or the PDF rendition of the node, obtains the result from the GenAI service and updates the node in the
+ * Alfresco Repository. Tasks already applied to the same content version, according to the {@link IdempotencyLedger},
+ * are skipped before retrieving any content, as long as their result is still stored in the node.
+ *
+ * <p>Document tasks (summary and classification) require a PDF rendition: when it is not available yet, the rendition
+ * is requested and the task is registered in the {@link PendingRenditionRegistry} to be resumed once the rendition
+ * has been created.
+ *
+ * <p>When a job includes both the summary and the classification of a document, both tasks are applied in a single
+ * pass: the PDF rendition is uploaded once to the enrich endpoint of the GenAI service.
+ *
+ * <p>The results of every task of a job are collected in {@link NodeChanges} and written once all the tasks have been
+ * run, so the node is updated with a single request per job. Tasks are recorded as completed in the
+ * {@link IdempotencyLedger} only once their results have been written, and they fail when the write fails.
+ *
+ * <p>Tasks fail fast, before retrieving any content, while the circuit breaker of their GenAI endpoint is open.
+ *
+ * <p>When streaming is enabled, contents are piped from the Alfresco Repository into the request to the GenAI service
+ * instead of being downloaded to temporary files first.
+ *
+ * <p>The duration of every stage and the result of every task are recorded through the {@link PipelineMetrics}.
+ */
+@Component
+public class JobProcessor {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(JobProcessor.class);
+
+    /**
+     * Tasks applied in a single pass by the enrich endpoint when a job includes all of them.
+     */
+    static final Set<GenAiJob.Task> ENRICH_TASKS = EnumSet.of(GenAiJob.Task.SUMMARY, GenAiJob.Task.CLASSIFY);
+
+    /**
+     * Value of the task tag of the metrics for the stages of a single-pass enrichment, matching the name of the
+     * GenAI endpoint.
+     */
+    static final String ENRICH = "enrich";
+
+    /**
+     * Value of the task tag of the metrics for the node update writing the results of every task of a job.
+     */
+    static final String JOB = "job";
+
+    /**
+     * Whether document tasks are applied in a single pass when a job includes several of them obtained from
+     * configuration.
+     */
+    @Value("${genai.jobs.enrich.enabled}")
+    boolean enrichEnabled;
+
+    /**
+     * Whether contents are piped from the Alfresco Repository to the GenAI service instead of being downloaded to
+     * temporary files obtained from configuration.
+     */
+    @Value("${genai.streaming.enabled}")
+    boolean streamingEnabled;
+
+    /**
+     * The property name for storing the document summary obtained from configuration.
+     */
+    @Value("${content.service.summary.summary.property}")
+    String summaryProperty;
+
+    /**
+     * The property name for storing the term obtained from configuration.
+     */
+    @Value("${content.service.classify.term.property}")
+    String termProperty;
+
+    /**
+     * The property name for storing the answer obtained from configuration.
+     */
+    @Value("${content.service.prompt.answer.property}")
+    String answerProperty;
+
+    /**
+     * The property name for storing the picture description obtained from configuration.
+     */
+    @Value("${content.service.description.description.property}")
+    String descriptionProperty;
+
+    /**
+     * Autowired instance of {@link GenAiClient} for interacting with the GenAI service.
+     */
+    @Autowired
+    GenAiClient genAiClient;
+
+    /**
+     * Autowired instance of {@link RenditionService} for handling document renditions.
+     */
+    @Autowired
+    RenditionService renditionService;
+
+    /**
+     * Autowired instance of {@link NodeUpdateService} for updating document nodes.
+     */
+    @Autowired
+    NodeUpdateService nodeUpdateService;
+
+    /**
+     * Autowired instance of {@link ContentService} for streaming node content to disk.
+     */
+    @Autowired
+    ContentService contentService;
+
+    /**
+     * Autowired instance of {@link IdempotencyLedger} for skipping tasks already completed on the same content.
+     */
+    @Autowired
+    IdempotencyLedger idempotencyLedger;
+
+    /**
+     * Autowired instance of {@link PendingRenditionRegistry} for resuming tasks once the PDF rendition is created.
+     */
+    @Autowired
+    PendingRenditionRegistry pendingRenditionRegistry;
+
+    /**
+     * Autowired instance of {@link ScratchSpace} for deleting the temporary files of the job once it is processed.
+     */
+    @Autowired
+    ScratchSpace scratchSpace;
+
+    /**
+     * Autowired instance of {@link PictureDownscaler} for reducing the pictures before describing them.
+     */
+    @Autowired
+    PictureDownscaler pictureDownscaler;
+
+    /**
+     * Autowired instance of {@link PipelineMetrics} for recording the duration of every stage and the task results.
+     */
+    @Autowired
+    PipelineMetrics pipelineMetrics;
+
+    /**
+     * Runs every task included in the job and writes their results to the node with a single update. Errors are
+     * collected per task, so a failing task does not prevent the remaining tasks of the job from being applied. The
+     * temporary files downloaded for the job are deleted once every task has been run.
+     *
+     * @param job The job to be processed.
+     * @return The errors of the failed tasks, indexed by task.
+     */
+    public Map<GenAiJob.Task, Exception> process(GenAiJob job) {
+        try (ScratchSpace.Scope scope = scratchSpace.open()) {
+            Map<GenAiJob.Task, Exception> failures = new EnumMap<>(GenAiJob.Task.class);
+            Map<GenAiJob.Task, String> results = new EnumMap<>(GenAiJob.Task.class);
+            PendingUpdate update = new PendingUpdate(job.getUuid());
+            Set<GenAiJob.Task> tasks = EnumSet.noneOf(GenAiJob.Task.class);
+            tasks.addAll(job.getTasks());
+            if (enrichEnabled && tasks.containsAll(ENRICH_TASKS)) {
+                try {
+                    enrich(job.getUuid(), update, results);
+                } catch (IOException | RuntimeException e) {
+                    for (GenAiJob.Task task : ENRICH_TASKS) {
+                        if (!SKIPPED.equals(results.get(task))) {
+                            results.put(task, FAILED);
+                            failures.put(task, e);
+                        }
+                    }
+                }
+                tasks.removeAll(ENRICH_TASKS);
+            }
+            for (GenAiJob.Task task : tasks) {
+                results.put(task, FAILED);
+                try {
+                    results.put(task, switch (task) {
+                        case SUMMARY -> summarize(job.getUuid(), update);
+                        case CLASSIFY -> classify(job.getUuid(), update);
+                        case PROMPT -> answer(job.getUuid(), job.getQuestion(), update);
+                        case DESCRIBE -> describe(job.getUuid(), update);
+                    });
+                } catch (IOException | RuntimeException e) {
+                    failures.put(task, e);
+                }
+            }
+            write(update, results, failures);
+            results.forEach((task, result) -> pipelineMetrics.recordTask(tag(task), result));
+            return failures;
+        }
+    }
+
+    /**
+     * Writes the results collected for the node and records the tasks that produced them as completed. When the write
+     * fails, those tasks fail with the error of the write.
+     *
+     * <p>The tasks are recorded for the content version of the node read before running them, which writing the
+     * results does not change, so the node is not read again.
+     *
+     * @param update   The results collected for the node.
+     * @param results  The results of the tasks, updated when the write fails.
+     * @param failures The errors of the failed tasks, updated when the write fails.
+     */
+    void write(PendingUpdate update, Map<GenAiJob.Task, String> results, Map<GenAiJob.Task, Exception> failures) {
+        if (update.changes.isEmpty()) {
+            return;
+        }
+        String uuid = update.changes.getUuid();
+        try {
+            pipelineMetrics.run(NODE_UPDATE, JOB, () -> nodeUpdateService.write(update.changes));
+            if (update.node != null) {
+                String version = RenditionService.getContentVersion(update.node);
+                update.parameters.forEach((task, parameters) -> idempotencyLedger.recordCompleted(uuid, task,
+                        IdempotencyLedger.fingerprintVersion(version, parameters)));
+            }
+            LOG.info("Node {} has been updated with the results of {}", uuid, update.parameters.keySet());
+        } catch (RuntimeException e) {
+            update.parameters.keySet().forEach(task -> {
+                results.put(task, FAILED);
+                failures.put(task, e);
+            });
+        }
+    }
+
+    /**
+     * Summarizes and classifies the document in a single pass when the PDF rendition is available; otherwise, it
+     * requests the creation of the rendition for the tasks to be applied. A task already applied to the same content
+     * is skipped before checking the rendition, and only the remaining one is requested to the GenAI service.
+     *
+     * <p>The results are added as soon as they are known, so when the enrichment fails the caller only fails the tasks
+     * that were not skipped.
+     *
+     * @param uuid    The unique identifier of the document.
+     * @param update  The results collected for the document.
+     * @param results The results of the tasks of the job, where the results of the summary and classification tasks
+     *                are added.
+     * @throws IOException If an I/O error occurs while retrieving the content or calling the GenAI service.
+     */
+    void enrich(String uuid, PendingUpdate update, Map<GenAiJob.Task, String> results) throws IOException {
+        String termList = nodeUpdateService.getTermList(uuid);
+        boolean summarize = !isCompleted(update, GenAiJob.Task.SUMMARY);
+        boolean classify = !isCompleted(update, GenAiJob.Task.CLASSIFY, termList);
+        if (!summarize) {
+            LOG.info("Document {} has already been summarized", uuid);
+            results.put(GenAiJob.Task.SUMMARY, SKIPPED);
+        }
+        if (!classify) {
+            LOG.info("Document {} has already been classified", uuid);
+            results.put(GenAiJob.Task.CLASSIFY, SKIPPED);
+        }
+        if (!summarize && !classify) {
+            return;
+        }
+        if (!pipelineMetrics.time(RENDITION_CHECK, ENRICH, () -> renditionService.pdfRenditionIsCreated(uuid))) {
+            if (summarize && classify) {
+                pendingRenditionRegistry.register(uuid, GenAiJob.Task.SUMMARY);
+                results.put(GenAiJob.Task.SUMMARY, RENDITION_REQUESTED);
+            }
+            GenAiJob.Task task = classify ? GenAiJob.Task.CLASSIFY : GenAiJob.Task.SUMMARY;
+            results.put(task, requestPdfRendition(uuid, task));
+            return;
+        }
+        genAiClient.checkAvailable(ENRICH);
+        File pdfFile = streamingEnabled ? null : downloadPdfRendition(uuid, update, ENRICH);
+        LOG.info("Enriching document {}", uuid);
+        Enrichment enrichment;
+        if (pdfFile == null) {
+            try (ContentStream pdfStream = openPdfRendition(uuid, ENRICH)) {
+                enrichment = genAiClient.enrich(pdfStream, summarize, classify ? termList : null, null);
+            }
+        } else {
+            enrichment = genAiClient.enrich(pdfFile, summarize, classify ? termList : null, null);
+        }
+        nodeUpdateService.addEnrichment(update.changes, enrichment);
+        if (summarize) {
+            update.parameters.put(GenAiJob.Task.SUMMARY, new String[0]);
+            results.put(GenAiJob.Task.SUMMARY, COMPLETED);
+        }
+        if (classify) {
+            update.parameters.put(GenAiJob.Task.CLASSIFY, new String[] {termList});
+            results.put(GenAiJob.Task.CLASSIFY, COMPLETED);
+        }
+    }
+
+    /**
+     * Summarizes the document when the PDF rendition is available; otherwise, it requests the creation of the rendition.
+     *
+     * @param uuid   The unique identifier of the document.
+     * @param update The results collected for the document.
+     * @return The result of the task.
+     * @throws IOException If an I/O error occurs while retrieving the content or calling the GenAI service.
+     */
+    String summarize(String uuid, PendingUpdate update) throws IOException {
+        String task = tag(GenAiJob.Task.SUMMARY);
+        if (isCompleted(update, GenAiJob.Task.SUMMARY)) {
+            LOG.info("Document {} has already been summarized", uuid);
+            return SKIPPED;
+        }
+        if (pipelineMetrics.time(RENDITION_CHECK, task, () -> renditionService.pdfRenditionIsCreated(uuid))) {
+            genAiClient.checkAvailable(task);
+            File pdfFile = streamingEnabled ? null : downloadPdfRendition(uuid, update, task);
+            LOG.info("Summarizing document {}", uuid);
+            Summary summary;
+            if (pdfFile == null) {
+                try (ContentStream pdfStream = openPdfRendition(uuid, task)) {
+                    summary = genAiClient.getSummary(pdfStream);
+                }
+            } else {
+                summary = genAiClient.getSummary(pdfFile);
+            }
+            nodeUpdateService.addSummary(update.changes, summary);
+            update.parameters.put(GenAiJob.Task.SUMMARY, new String[0]);
+            return COMPLETED;
+        } else {
+            return requestPdfRendition(uuid, GenAiJob.Task.SUMMARY);
+        }
+    }
+
+    /**
+     * Classifies the document when the PDF rendition is available; otherwise, it requests the creation of the rendition.
+     *
+     * @param uuid   The unique identifier of the document.
+     * @param update The results collected for the document.
+     * @return The result of the task.
+     * @throws IOException If an I/O error occurs while retrieving the content or calling the GenAI service.
+     */
+    String classify(String uuid, PendingUpdate update) throws IOException {
+        String task = tag(GenAiJob.Task.CLASSIFY);
+        String termList = nodeUpdateService.getTermList(uuid);
+        if (isCompleted(update, GenAiJob.Task.CLASSIFY, termList)) {
+            LOG.info("Document {} has already been classified", uuid);
+            return SKIPPED;
+        }
+        if (pipelineMetrics.time(RENDITION_CHECK, task, () -> renditionService.pdfRenditionIsCreated(uuid))) {
+            genAiClient.checkAvailable(task);
+            File pdfFile = streamingEnabled ? null : downloadPdfRendition(uuid, update, task);
+            LOG.info("Classifying document {}", uuid);
+            Term term;
+            if (pdfFile == null) {
+                try (ContentStream pdfStream = openPdfRendition(uuid, task)) {
+                    term = genAiClient.getTerm(pdfStream, termList);
+                }
+            } else {
+                term = genAiClient.getTerm(pdfFile, termList);
+            }
+            nodeUpdateService.addTerm(update.changes, term);
+            update.parameters.put(GenAiJob.Task.CLASSIFY, new String[] {termList});
+            return COMPLETED;
+        } else {
+            return requestPdfRendition(uuid, GenAiJob.Task.CLASSIFY);
+        }
+    }
+
+    /**
+     * Requests the creation of the PDF rendition for the document and registers the task to be resumed by the
+     * {@link org.alfresco.genai.event.RenditionCreatedHandler} once the rendition is created.
+     *
+     * @param uuid The unique identifier of the document.
+     * @param task The GenAI task waiting for the rendition.
+     * @return The result of the task.
+     */
+    String requestPdfRendition(String uuid, GenAiJob.Task task) {
+        LOG.info("PDF Rendition has been requested for document {}", uuid);
+        pendingRenditionRegistry.register(uuid, task);
+        pipelineMetrics.run(RENDITION_REQUEST, tag(task), () -> renditionService.createPdfRendition(uuid));
+        return RENDITION_REQUESTED;
+    }
+
+    /**
+     * Downloads the PDF rendition of the document, recording the duration of the download and the size of the
+     * rendition. The node read for the job provides the content version of the cached renditions.
+     *
+     * @param uuid   The unique identifier of the document.
+     * @param update The results collected for the document, holding the node once read.
+     * @param task   The GenAI task requiring the rendition.
+     * @return A {@link File} containing the content of the PDF rendition.
+     * @throws IOException If an I/O error occurs while retrieving the PDF file.
+     */
+    File downloadPdfRendition(String uuid, PendingUpdate update, String task) throws IOException {
+        Node node = renditionService.isCacheEnabled() ? getNode(update) : null;
+        File pdfFile = pipelineMetrics.time(RENDITION_DOWNLOAD, task,
+                () -> renditionService.getRenditionContent(uuid, node));
+        pipelineMetrics.recordPayload(RENDITION_DOWNLOAD, task, pdfFile.length());
+        return pdfFile;
+    }
+
+    /**
+     * Opens the PDF rendition of the document as a stream, recording the time until the response of the Alfresco
+     * Server is received and the size of the rendition.
+     *
+     * @param uuid The unique identifier of the document.
+     * @param task The GenAI task requiring the rendition.
+     * @return A {@link ContentStream} with the content of the PDF rendition, to be closed by the caller.
+     * @throws IOException If an I/O error occurs while opening the PDF rendition.
+     */
+    ContentStream openPdfRendition(String uuid, String task) throws IOException {
+        ContentStream pdfStream = pipelineMetrics.time(RENDITION_DOWNLOAD, task,
+                () -> renditionService.openRenditionContent(uuid));
+        pipelineMetrics.recordPayload(RENDITION_DOWNLOAD, task, pdfStream.getContentLength());
+        return pdfStream;
+    }
+
+    /**
+     * Checks if a task has already been applied to the current content of the node: the task is recorded as completed
+     * in the {@link IdempotencyLedger} for the content version of the node, and its result is still stored in the
+     * node, so a task whose result has been removed is applied again. The node is read once per job.
+     *
+     * @param update     The results collected for the node, holding the node once read.
+     * @param task       The GenAI task.
+     * @param parameters Additional parameters of the task.
+     * @return {@code true} if the task can be skipped, {@code false} otherwise.
+     */
+    boolean isCompleted(PendingUpdate update, GenAiJob.Task task, String... parameters) {
+        if (!idempotencyLedger.isEnabled()) {
+            return false;
+        }
+        Node node = getNode(update);
+        String resultProperty = switch (task) {
+            case SUMMARY -> summaryProperty;
+            case CLASSIFY -> termProperty;
+            case PROMPT -> answerProperty;
+            case DESCRIBE -> descriptionProperty;
+        };
+        String version = RenditionService.getContentVersion(node);
+        return RenditionService.getProperties(node).get(resultProperty) != null
+                && idempotencyLedger.isCompleted(update.changes.getUuid(), task,
+                        IdempotencyLedger.fingerprintVersion(version, parameters));
+    }
+
+    /**
+     * Gets the node of the job, reading it from the repository the first time, so it is read once per job.
+     */
+    Node getNode(PendingUpdate update) {
+        if (update.node == null) {
+            update.node = renditionService.getNode(update.changes.getUuid());
+        }
+        return update.node;
+    }
+
+    /**
+     * Answers a question using the PDF rendition of the document.
+     *
+     * @param uuid     The unique identifier of the document.
+     * @param question The question to be answered.
+     * @param update   The results collected for the document.
+     * @return The result of the task.
+     * @throws IOException If an I/O error occurs while retrieving the content or calling the GenAI service.
+     */
+    String answer(String uuid, String question, PendingUpdate update) throws IOException {
+        String task = tag(GenAiJob.Task.PROMPT);
+        if (isCompleted(update, GenAiJob.Task.PROMPT, question)) {
+            LOG.info("Question '{}' has already been answered for document {}", question, uuid);
+            return SKIPPED;
+        }
+        genAiClient.checkAvailable(task);
+        File pdfFile = streamingEnabled ? null : downloadPdfRendition(uuid, update, task);
+        LOG.info("Answering question '{}' for document {}", question, uuid);
+        Answer answer;
+        if (pdfFile == null) {
+            try (ContentStream pdfStream = openPdfRendition(uuid, task)) {
+                answer = genAiClient.getAnswer(pdfStream, question);
+            }
+        } else {
+            answer = genAiClient.getAnswer(pdfFile, question);
+        }
+        nodeUpdateService.addAnswer(update.changes, answer);
+        update.parameters.put(GenAiJob.Task.PROMPT, new String[] {question});
+        return COMPLETED;
+    }
+
+    /**
+     * Describes a picture using its original content, downscaled first when {@link PictureDownscaler} is enabled.
+     * Pictures to be downscaled are downloaded to temporary files even when streaming is enabled, since they are
+     * decoded from disk.
+     *
+     * @param uuid   The unique identifier of the picture.
+     * @param update The results collected for the picture.
+     * @return The result of the task.
+     * @throws IOException If an I/O error occurs while retrieving the content or calling the GenAI service.
+     */
+    String describe(String uuid, PendingUpdate update) throws IOException {
+        String task = tag(GenAiJob.Task.DESCRIBE);
+        if (isCompleted(update, GenAiJob.Task.DESCRIBE)) {
+            LOG.debug("Picture {} has already been described", uuid);
+            return SKIPPED;
+        }
+        LOG.debug("Describing picture {}", uuid);
+        genAiClient.checkAvailable(task);
+        File pictureFile = null;
+        if (!streamingEnabled || pictureDownscaler.isEnabled()) {
+            pictureFile = pipelineMetrics.time(CONTENT_DOWNLOAD, task, () -> contentService.getNodeContent(uuid));
+            pipelineMetrics.recordPayload(CONTENT_DOWNLOAD, task, pictureFile.length());
+        }
+        if (pictureDownscaler.isEnabled()) {
+            File originalFile = pictureFile;
+            pictureFile = pipelineMetrics.time(PICTURE_DOWNSCALE, task, () -> pictureDownscaler.downscale(originalFile));
+            pipelineMetrics.recordPayload(PICTURE_DOWNSCALE, task, pictureFile.length());
+        }
+        Description description;
+        if (pictureFile == null) {
+            try (ContentStream pictureStream = pipelineMetrics.time(CONTENT_DOWNLOAD, task,
+                    () -> contentService.openNodeContent(uuid))) {
+                pipelineMetrics.recordPayload(CONTENT_DOWNLOAD, task, pictureStream.getContentLength());
+                description = genAiClient.getDescription(pictureStream);
+            }
+        } else {
+            description = genAiClient.getDescription(pictureFile);
+        }
+        nodeUpdateService.addDescription(update.changes, description);
+        update.parameters.put(GenAiJob.Task.DESCRIBE, new String[0]);
+        return COMPLETED;
+    }
+
+    /**
+     * Returns the value of the task tag of the metrics, matching the name of the GenAI endpoint.
+     *
+     * @param task The GenAI task.
+     * @return The lower case name of the task.
+     */
+    static String tag(GenAiJob.Task task) {
+        return task.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The changes of a node produced by the tasks of a job, together with the parameters of every task that produced
+     * them, to be recorded in the {@link IdempotencyLedger} once the changes have been written.
+     */
+    static class PendingUpdate {
+
+        /**
+         * The changes of the node.
+         */
+        final NodeChanges changes;
+
+        /**
+         * The parameters of every task producing changes, included in the fingerprint of the task.
+         */
+        final Map<GenAiJob.Task, String[]> parameters = new EnumMap<>(GenAiJob.Task.class);
+
+        /**
+         * The node as read before running the tasks, holding the content version the tasks are applied to, or
+         * {@code null} if it has not been read.
+         */
+        Node node;
+
+        PendingUpdate(String uuid) {
+            this.changes = new NodeChanges(uuid);
+        }
+    }
+
+}
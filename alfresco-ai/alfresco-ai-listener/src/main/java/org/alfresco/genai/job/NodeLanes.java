@@ -0,0 +1,166 @@
+package org.alfresco.genai.job;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code NodeLanes} class keeps the jobs of the same node in order while the jobs of different nodes run in
+ * parallel. A worker claims the lane of the node before running a job; a job taken while another job of the same node
+ * holds the lane is parked in the lane instead. Once the running job finishes, the lane is handed over to the next
+ * parked job of the node, in arrival order, and the job is queued again, so it is served by a worker allowed to run
+ * its priority when its turn comes. Workers never block on a busy node, so they keep serving the jobs of other nodes.
+ *
+ * <p>Lanes are partitioned by the hash of the node UUID into stripes, each one guarded by its own lock, so workers
+ * handling different nodes rarely contend.
+ */
+public class NodeLanes {
+
+    /**
+     * The stripes holding the lanes of the nodes with a running job.
+     */
+    final Stripe[] stripes;
+
+    /**
+     * Creates the lanes.
+     *
+     * @param stripes Number of stripes the lanes are partitioned into.
+     */
+    public NodeLanes(int stripes) {
+        this.stripes = new Stripe[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Claims the lane of the node of a job to run it, or parks the job when the lane is held by another job of the same
+     * node. A job the lane has been handed over to holds it already, so it is run without parking it again.
+     *
+     * @param job The job to be run.
+     * @return {@code true} if the caller must run the job and then call {@link #release(String)}, {@code false} if the
+     *         job has been parked.
+     */
+    public boolean acquire(GenAiJob job) {
+        Stripe stripe = stripe(job.getUuid());
+        synchronized (stripe) {
+            Lane lane = stripe.lanes.get(job.getUuid());
+            if (lane == null) {
+                stripe.lanes.put(job.getUuid(), new Lane(job));
+                return true;
+            }
+            if (lane.holder == job) {
+                return true;
+            }
+            lane.parked.addLast(job);
+            stripe.parked++;
+            return false;
+        }
+    }
+
+    /**
+     * Releases the lane of a node once its running job has finished, unless a job of the node has been parked in the
+     * meantime. In that case, the lane is handed over to the next parked job, which must be queued again by the caller.
+     *
+     * @param uuid The unique identifier of the node.
+     * @return The next parked job of the node, now holding the lane, or {@code null} if the lane has been released.
+     */
+    public GenAiJob release(String uuid) {
+        Stripe stripe = stripe(uuid);
+        synchronized (stripe) {
+            Lane lane = stripe.lanes.get(uuid);
+            if (lane == null || lane.parked.isEmpty()) {
+                stripe.lanes.remove(uuid);
+                return null;
+            }
+            stripe.parked--;
+            lane.holder = lane.parked.pollFirst();
+            return lane.holder;
+        }
+    }
+
+    /**
+     * Gets the number of jobs parked behind a running job of the same node.
+     *
+     * @return The number of parked jobs.
+     */
+    public int getParkedCount() {
+        int parked = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                parked += stripe.parked;
+            }
+        }
+        return parked;
+    }
+
+    /**
+     * Removes and returns every parked job. Lanes stay claimed until the jobs holding them release them.
+     *
+     * @return The parked jobs.
+     */
+    public List<GenAiJob> drain() {
+        List<GenAiJob> jobs = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.lanes.values().forEach(lane -> {
+                    jobs.addAll(lane.parked);
+                    lane.parked.clear();
+                });
+                stripe.parked = 0;
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Gets the stripe holding the lane of a node.
+     */
+    Stripe stripe(String uuid) {
+        return stripes[Math.floorMod(uuid.hashCode(), stripes.length)];
+    }
+
+    /**
+     * A partition of the lanes, guarded by its own monitor.
+     */
+    static class Stripe {
+
+        /**
+         * Lanes indexed by the UUID of a node with a running job.
+         */
+        final Map<String, Lane> lanes = new HashMap<>();
+
+        /**
+         * Number of jobs parked in the stripe.
+         */
+        int parked;
+    }
+
+    /**
+     * The lane of a node: the job holding it, either running or queued again after a hand-over, and the jobs parked
+     * behind it in arrival order.
+     */
+    static class Lane {
+
+        /**
+         * Jobs of the node waiting for the lane, in arrival order.
+         */
+        final Deque<GenAiJob> parked = new ArrayDeque<>();
+
+        /**
+         * The job holding the lane.
+         */
+        GenAiJob holder;
+
+        /**
+         * Creates a lane held by the given job.
+         */
+        Lane(GenAiJob holder) {
+            this.holder = holder;
+        }
+    }
+
+}
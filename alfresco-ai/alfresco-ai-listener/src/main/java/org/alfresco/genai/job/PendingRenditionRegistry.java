@@ -0,0 +1,269 @@
+package org.alfresco.genai.job;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code PendingRenditionRegistry} class is a Spring component that keeps track of the documents waiting for a PDF
+ * rendition requested by the listener, together with the GenAI tasks to be resumed once the rendition is available.
+ *
+ * <p>Rendition events are produced for every document in the repository, so the registry allows the rendition
+ * handler to identify the relevant ones without calling the Alfresco REST API.
+ *
+ * <p>Every pending rendition has a deadline: when the rendition event is lost or the transformation fails, the
+ * {@link PendingRenditionSweeper} finds the overdue entries and resumes or retries them. The registry is written to a
+ * journal file in the data folder, so pending renditions survive restarts.
+ */
+@Component
+public class PendingRenditionRegistry {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(PendingRenditionRegistry.class);
+
+    /**
+     * Name of the journal file in the data folder.
+     */
+    static final String JOURNAL_FILE = "pending-renditions.journal";
+
+    /**
+     * Time in seconds to wait for a requested PDF rendition obtained from configuration.
+     */
+    @Value("${genai.rendition.timeout}")
+    long timeout;
+
+    /**
+     * Folder to store local state of the listener obtained from configuration.
+     */
+    @Value("${genai.data.dir}")
+    String dataDir;
+
+    /**
+     * Pending renditions indexed by document UUID.
+     */
+    final Map<String, PendingRendition> pendingRenditions = new HashMap<>();
+
+    /**
+     * Path of the journal file.
+     */
+    Path journalPath;
+
+    /**
+     * Number of lines appended to the journal file since it was last compacted.
+     */
+    int appendedLines;
+
+    /**
+     * Replays the journal file during bean creation.
+     *
+     * @throws IOException If the journal file cannot be read.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        journalPath = Path.of(dataDir, JOURNAL_FILE);
+        Files.createDirectories(journalPath.getParent());
+        if (Files.exists(journalPath)) {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ");
+                if (fields[0].equals("R") && fields.length == 5) {
+                    Set<GenAiJob.Task> tasks = EnumSet.noneOf(GenAiJob.Task.class);
+                    Arrays.stream(fields[2].split(",")).map(GenAiJob.Task::valueOf).forEach(tasks::add);
+                    pendingRenditions.put(fields[1],
+                            new PendingRendition(tasks, Long.parseLong(fields[3]), Integer.parseInt(fields[4])));
+                } else if (fields[0].equals("C") && fields.length == 2) {
+                    pendingRenditions.remove(fields[1]);
+                }
+            }
+            compact();
+        }
+        LOG.info("Pending rendition registry loaded with {} documents", pendingRenditions.size());
+    }
+
+    /**
+     * Registers a task to be resumed when the PDF rendition of the document is created.
+     *
+     * @param uuid The unique identifier of the document.
+     * @param task The GenAI task waiting for the rendition.
+     */
+    public synchronized void register(String uuid, GenAiJob.Task task) {
+        PendingRendition pending = pendingRenditions.computeIfAbsent(uuid, key ->
+                new PendingRendition(EnumSet.noneOf(GenAiJob.Task.class), deadline(1), 1));
+        pending.tasks.add(task);
+        append(registerLine(uuid, pending));
+    }
+
+    /**
+     * Removes and returns the tasks waiting for the PDF rendition of the document.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return The tasks waiting for the rendition, or an empty set when the rendition was not requested by the listener.
+     */
+    public synchronized Set<GenAiJob.Task> claim(String uuid) {
+        PendingRendition pending = pendingRenditions.remove(uuid);
+        if (pending == null) {
+            return Collections.emptySet();
+        }
+        append("C " + uuid);
+        return pending.tasks;
+    }
+
+    /**
+     * Gets the documents whose PDF rendition deadline has been reached, the most overdue first.
+     *
+     * @param maxItems Maximum number of documents to return.
+     * @return The UUIDs of the overdue documents.
+     */
+    public synchronized List<String> getOverdue(int maxItems) {
+        long now = System.currentTimeMillis();
+        return pendingRenditions.entrySet().stream()
+                .filter(entry -> entry.getValue().deadline <= now)
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().deadline))
+                .limit(maxItems)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records a new request of the PDF rendition for the document, extending its deadline proportionally to the
+     * number of attempts.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return The number of times the rendition has been requested, or {@code 0} if the document is not pending.
+     */
+    public synchronized int retry(String uuid) {
+        PendingRendition pending = pendingRenditions.get(uuid);
+        if (pending == null) {
+            return 0;
+        }
+        pending.attempts++;
+        pending.deadline = deadline(pending.attempts);
+        append(registerLine(uuid, pending));
+        return pending.attempts;
+    }
+
+    /**
+     * Gets the number of times the PDF rendition has been requested for the document.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return The number of attempts, or {@code 0} if the document is not pending.
+     */
+    public synchronized int getAttempts(String uuid) {
+        PendingRendition pending = pendingRenditions.get(uuid);
+        return pending == null ? 0 : pending.attempts;
+    }
+
+    /**
+     * Gets the number of documents waiting for a PDF rendition.
+     *
+     * @return The number of pending documents.
+     */
+    public synchronized int size() {
+        return pendingRenditions.size();
+    }
+
+    /**
+     * Rewrites the journal file with the pending renditions currently held in memory.
+     *
+     * @throws IOException If the journal file cannot be written.
+     */
+    public synchronized void compact() throws IOException {
+        List<String> lines = pendingRenditions.entrySet().stream()
+                .map(entry -> registerLine(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        Path compactedPath = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        Files.write(compactedPath, lines, StandardCharsets.UTF_8);
+        Files.move(compactedPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        appendedLines = 0;
+    }
+
+    /**
+     * Rewrites the journal file when lines have been appended since it was last compacted, so the journal holds at
+     * most the pending renditions and the changes made since then.
+     *
+     * @throws IOException If the journal file cannot be written.
+     */
+    public synchronized void compactIfChanged() throws IOException {
+        if (appendedLines > 0) {
+            compact();
+        }
+    }
+
+    /**
+     * Computes the deadline for the given attempt.
+     */
+    long deadline(int attempt) {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout) * attempt;
+    }
+
+    /**
+     * Builds the journal line recording the current state of a pending rendition.
+     */
+    static String registerLine(String uuid, PendingRendition pending) {
+        return String.join(" ", "R", uuid,
+                pending.tasks.stream().map(Enum::name).collect(Collectors.joining(",")),
+                String.valueOf(pending.deadline),
+                String.valueOf(pending.attempts));
+    }
+
+    /**
+     * Appends a line to the journal file.
+     */
+    void append(String line) {
+        appendedLines++;
+        try {
+            Files.writeString(journalPath, line + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warn("Error writing pending rendition journal {}", journalPath, e);
+        }
+    }
+
+    /**
+     * A document waiting for its PDF rendition.
+     */
+    static class PendingRendition {
+
+        /**
+         * The tasks to be resumed once the rendition is created.
+         */
+        final Set<GenAiJob.Task> tasks;
+
+        /**
+         * Time in milliseconds after which the rendition is considered overdue.
+         */
+        long deadline;
+
+        /**
+         * Number of times the rendition has been requested.
+         */
+        int attempts;
+
+        PendingRendition(Set<GenAiJob.Task> tasks, long deadline, int attempts) {
+            this.tasks = tasks;
+            this.deadline = deadline;
+            this.attempts = attempts;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.alfresco.genai.job;
+
+import org.alfresco.genai.service.RenditionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PendingRenditionSweeper} class is a Spring component that periodically checks the PDF renditions that
+ * have not been created before their deadline, according to the {@link PendingRenditionRegistry}.
+ *
+ * <p>For every overdue document in the batch, the status of the rendition is checked: when it has been created (the
+ * rendition event was missed), the pending tasks are queued; otherwise, the rendition is requested again until the
+ * maximum number of attempts is reached.
+ */
+@Component
+public class PendingRenditionSweeper {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(PendingRenditionSweeper.class);
+
+    /**
+     * Maximum number of overdue documents checked on every sweep obtained from configuration.
+     */
+    @Value("${genai.rendition.sweep.batch.size}")
+    int batchSize;
+
+    /**
+     * Maximum number of times a PDF rendition is requested for a document obtained from configuration.
+     */
+    @Value("${genai.rendition.max.attempts}")
+    int maxAttempts;
+
+    /**
+     * Autowired instance of {@link PendingRenditionRegistry} for retrieving the overdue renditions.
+     */
+    @Autowired
+    PendingRenditionRegistry pendingRenditionRegistry;
+
+    /**
+     * Autowired instance of {@link RenditionService} for checking and requesting renditions.
+     */
+    @Autowired
+    RenditionService renditionService;
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for queuing the resumed tasks.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Checks a batch of overdue renditions, resuming the tasks of the created ones and requesting the missing ones
+     * again. The journal of the registry is compacted on every sweep in which it has changed, whether or not any
+     * rendition is overdue.
+     */
+    @Scheduled(fixedDelayString = "${genai.rendition.sweep.interval}", timeUnit = TimeUnit.SECONDS)
+    public void sweep() {
+        try {
+            pendingRenditionRegistry.compactIfChanged();
+        } catch (IOException e) {
+            LOG.warn("Error compacting pending rendition journal", e);
+        }
+        List<String> overdue = pendingRenditionRegistry.getOverdue(batchSize);
+        if (overdue.isEmpty()) {
+            return;
+        }
+        LOG.debug("Checking {} overdue PDF renditions", overdue.size());
+        for (String uuid : overdue) {
+            try {
+                if (renditionService.pdfRenditionIsCreated(uuid)) {
+                    Set<GenAiJob.Task> tasks = pendingRenditionRegistry.claim(uuid);
+                    if (!tasks.isEmpty()) {
+                        LOG.info("PDF Rendition for document {} is available, resuming {}", uuid, tasks);
+                        GenAiJob job = new GenAiJob().uuid(uuid);
+                        tasks.forEach(job::task);
+                        jobDispatcher.submit(job);
+                    }
+                } else if (pendingRenditionRegistry.getAttempts(uuid) < maxAttempts) {
+                    int attempt = pendingRenditionRegistry.retry(uuid);
+                    LOG.info("PDF Rendition has been requested again for document {} (attempt {})", uuid, attempt);
+                    renditionService.createPdfRendition(uuid);
+                } else {
+                    Set<GenAiJob.Task> tasks = pendingRenditionRegistry.claim(uuid);
+                    LOG.warn("PDF Rendition for document {} was not created after {} attempts, discarding {}",
+                            uuid, maxAttempts, tasks);
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Error checking PDF rendition for document {}", uuid, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+package org.alfresco.genai.job;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code PriorityJobQueue} class is a bounded blocking queue of {@link GenAiJob} instances with one lane per
+ * {@link GenAiJob.Priority}. Lanes are served by smooth weighted round-robin, so higher priorities get most of the
+ * workers while lower priorities still make progress. A job waiting longer than the maximum wait is served first,
+ * regardless of its priority, to prevent starvation.
+ *
+ * <p>Once the queue is closed, callers waiting for a job are released and the remaining jobs can be drained.
+ */
+public class PriorityJobQueue {
+
+    /**
+     * Maximum number of jobs held by the queue.
+     */
+    final int capacity;
+
+    /**
+     * Weight of every priority lane.
+     */
+    final Map<GenAiJob.Priority, Integer> weights = new EnumMap<>(GenAiJob.Priority.class);
+
+    /**
+     * Maximum time in milliseconds a job waits before being served regardless of its priority.
+     */
+    final long maxWait;
+
+    /**
+     * Queued jobs per priority lane, in arrival order.
+     */
+    final Map<GenAiJob.Priority, Deque<QueuedJob>> lanes = new EnumMap<>(GenAiJob.Priority.class);
+
+    /**
+     * Current credit of every priority lane for the weighted round-robin.
+     */
+    final Map<GenAiJob.Priority, Integer> credits = new EnumMap<>(GenAiJob.Priority.class);
+
+    /**
+     * Total number of queued jobs.
+     */
+    int count;
+
+    /**
+     * Whether the queue has been closed, so no more jobs are served.
+     */
+    boolean closed;
+
+    final ReentrantLock lock = new ReentrantLock();
+    final Condition notFull = lock.newCondition();
+    final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity Maximum number of jobs held by the queue.
+     * @param weights  Weight of every priority lane, in {@link GenAiJob.Priority} order.
+     * @param maxWait  Maximum time in seconds a job waits before being served regardless of its priority.
+     */
+    public PriorityJobQueue(int capacity, int[] weights, long maxWait) {
+        this.capacity = capacity;
+        this.maxWait = TimeUnit.SECONDS.toMillis(maxWait);
+        for (GenAiJob.Priority priority : GenAiJob.Priority.values()) {
+            this.weights.put(priority, Math.max(1, weights[priority.ordinal()]));
+            this.lanes.put(priority, new ArrayDeque<>());
+            this.credits.put(priority, 0);
+        }
+    }
+
+    /**
+     * Adds a job to the lane of its priority, waiting for space when the queue is full.
+     *
+     * @param job The job to be queued.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void put(GenAiJob job) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            lanes.get(job.getPriority()).addLast(new QueuedJob(job, System.currentTimeMillis()));
+            count++;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a job the lane of its node has been handed over to back to the head of the lane of its priority, since it
+     * has already waited for its turn. The job is added even when the queue is full, so the worker queuing it is never
+     * blocked waiting for itself to take a job.
+     *
+     * @param job The job to be queued again.
+     * @return {@code true} if the job has been queued, {@code false} if the queue has been closed.
+     */
+    public boolean requeue(GenAiJob job) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            lanes.get(job.getPriority()).addFirst(new QueuedJob(job, System.currentTimeMillis()));
+            count++;
+            notEmpty.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves and removes the next job of the allowed priorities, waiting until one is available.
+     *
+     * @param allowed The priorities the caller is allowed to serve.
+     * @return The next job, or {@code null} if the queue has been closed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public GenAiJob take(Set<GenAiJob.Priority> allowed) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            GenAiJob.Priority priority = null;
+            while (!closed && (priority = select(allowed)) == null) {
+                notEmpty.await();
+            }
+            if (closed) {
+                return null;
+            }
+            count--;
+            notFull.signal();
+            return lanes.get(priority).pollFirst().job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Selects the lane to be served: the lane of the oldest job exceeding the maximum wait, if any; otherwise, the
+     * non-empty lane with the highest credit after adding the weights.
+     */
+    GenAiJob.Priority select(Set<GenAiJob.Priority> allowed) {
+        long now = System.currentTimeMillis();
+        GenAiJob.Priority starving = null;
+        long oldest = Long.MAX_VALUE;
+        int totalWeight = 0;
+        for (GenAiJob.Priority priority : allowed) {
+            QueuedJob head = lanes.get(priority).peekFirst();
+            if (head != null) {
+                totalWeight += weights.get(priority);
+                if (now - head.enqueued > maxWait && head.enqueued < oldest) {
+                    starving = priority;
+                    oldest = head.enqueued;
+                }
+            }
+        }
+        if (totalWeight == 0) {
+            return null;
+        }
+        if (starving != null) {
+            return starving;
+        }
+        GenAiJob.Priority selected = null;
+        for (GenAiJob.Priority priority : allowed) {
+            if (!lanes.get(priority).isEmpty()) {
+                credits.merge(priority, weights.get(priority), Integer::sum);
+                if (selected == null || credits.get(priority) > credits.get(selected)) {
+                    selected = priority;
+                }
+            }
+        }
+        credits.merge(selected, -totalWeight, Integer::sum);
+        return selected;
+    }
+
+    /**
+     * Closes the queue, releasing the callers waiting for a job. Queued jobs are kept until they are drained.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns every queued job, in priority and arrival order.
+     *
+     * @return The queued jobs.
+     */
+    public List<GenAiJob> drain() {
+        lock.lock();
+        try {
+            List<GenAiJob> jobs = new ArrayList<>();
+            lanes.values().forEach(lane -> lane.forEach(queuedJob -> jobs.add(queuedJob.job)));
+            lanes.values().forEach(Deque::clear);
+            count = 0;
+            notFull.signalAll();
+            return jobs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queued jobs.
+     *
+     * @return The number of queued jobs.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queued jobs with the given priority.
+     *
+     * @param priority The priority.
+     * @return The number of queued jobs with the priority.
+     */
+    public int size(GenAiJob.Priority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A queued job and the time in milliseconds when it was queued.
+     */
+    record QueuedJob(GenAiJob job, long enqueued) {
+    }
+
+}
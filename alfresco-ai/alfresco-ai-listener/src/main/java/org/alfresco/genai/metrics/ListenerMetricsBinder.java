@@ -0,0 +1,187 @@
+package org.alfresco.genai.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.alfresco.genai.job.BackpressureController;
+import org.alfresco.genai.job.FailedTaskStore;
+import org.alfresco.genai.job.GenAiJob;
+import org.alfresco.genai.job.JobDebouncer;
+import org.alfresco.genai.job.JobDispatcher;
+import org.alfresco.genai.job.PendingRenditionRegistry;
+import org.alfresco.genai.service.Bulkhead;
+import org.alfresco.genai.service.CircuitBreaker;
+import org.alfresco.genai.service.GenAiClient;
+import org.alfresco.genai.service.GenAiResultCache;
+import org.alfresco.genai.service.RenditionCache;
+import org.alfresco.genai.service.ScratchSpace;
+import org.alfresco.genai.service.TermListCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code ListenerMetricsBinder} class is a Spring component that binds gauges for the internal state of the
+ * listener to the {@link MeterRegistry}: the depth of the job queue per priority, the jobs parked behind a job of the
+ * same node, the jobs waiting for their debounce window, the documents waiting for a PDF rendition, the failed tasks,
+ * the result, rendition and term list caches, the temporary files, the backpressure status and the usage of the
+ * bulkhead and the circuit breaker of every GenAI endpoint.
+ */
+@Component
+public class ListenerMetricsBinder implements MeterBinder {
+
+    /**
+     * Autowired instance of {@link JobDispatcher} for retrieving the depth of the job queue.
+     */
+    @Autowired
+    JobDispatcher jobDispatcher;
+
+    /**
+     * Autowired instance of {@link JobDebouncer} for retrieving the number of debounced jobs.
+     */
+    @Autowired
+    JobDebouncer jobDebouncer;
+
+    /**
+     * Autowired instance of {@link PendingRenditionRegistry} for retrieving the number of pending renditions.
+     */
+    @Autowired
+    PendingRenditionRegistry pendingRenditionRegistry;
+
+    /**
+     * Autowired instance of {@link FailedTaskStore} for retrieving the number of retries and dead letters.
+     */
+    @Autowired
+    FailedTaskStore failedTaskStore;
+
+    /**
+     * Autowired instance of {@link BackpressureController} for retrieving the backpressure status.
+     */
+    @Autowired
+    BackpressureController backpressureController;
+
+    /**
+     * Autowired instance of {@link GenAiClient} for retrieving the bulkheads of the GenAI endpoints.
+     */
+    @Autowired
+    GenAiClient genAiClient;
+
+    /**
+     * Autowired instance of {@link GenAiResultCache} for retrieving the size of the result cache.
+     */
+    @Autowired
+    GenAiResultCache resultCache;
+
+    /**
+     * Autowired instance of {@link RenditionCache} for retrieving the size of the rendition cache.
+     */
+    @Autowired
+    RenditionCache renditionCache;
+
+    /**
+     * Autowired instance of {@link TermListCache} for retrieving the number of cached term lists.
+     */
+    @Autowired
+    TermListCache termListCache;
+
+    /**
+     * Autowired instance of {@link ScratchSpace} for retrieving the space used by temporary files.
+     */
+    @Autowired
+    ScratchSpace scratchSpace;
+
+    /**
+     * Binds the gauges of the listener to the registry.
+     *
+     * @param registry The registry.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (GenAiJob.Priority priority : GenAiJob.Priority.values()) {
+            Gauge.builder("genai.jobs.queued", jobDispatcher, dispatcher -> dispatcher.getQueueSize(priority))
+                    .description("GenAI jobs waiting for a worker")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        Gauge.builder("genai.jobs.parked", jobDispatcher, JobDispatcher::getParkedCount)
+                .description("GenAI jobs waiting for the running job of the same node")
+                .register(registry);
+        Gauge.builder("genai.jobs.debounced", jobDebouncer, JobDebouncer::getPendingCount)
+                .description("GenAI jobs waiting for the end of their debounce window")
+                .register(registry);
+        Gauge.builder("genai.renditions.pending", pendingRenditionRegistry, PendingRenditionRegistry::size)
+                .description("Documents waiting for a PDF rendition")
+                .register(registry);
+        Gauge.builder("genai.tasks.retrying", failedTaskStore, FailedTaskStore::getRetryCount)
+                .description("Failed GenAI tasks waiting to be retried")
+                .register(registry);
+        Gauge.builder("genai.tasks.dead", failedTaskStore, FailedTaskStore::getDeadLetterCount)
+                .description("Failed GenAI tasks stored as dead letters")
+                .register(registry);
+        Gauge.builder("genai.cache.entries", resultCache, GenAiResultCache::getEntryCount)
+                .description("GenAI responses stored in the result cache")
+                .register(registry);
+        Gauge.builder("genai.cache.size", resultCache, GenAiResultCache::getSize)
+                .description("Size of the GenAI responses stored in the result cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("genai.rendition.cache.entries", renditionCache, RenditionCache::getEntryCount)
+                .description("PDF renditions stored in the rendition cache")
+                .register(registry);
+        Gauge.builder("genai.rendition.cache.size", renditionCache, RenditionCache::getSize)
+                .description("Size of the PDF renditions stored in the rendition cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("genai.terms.cache.entries", termListCache, TermListCache::getEntryCount)
+                .description("Folder term lists stored in the term list cache")
+                .register(registry);
+        Gauge.builder("genai.scratch.files", scratchSpace, ScratchSpace::getFileCount)
+                .description("Temporary files held by GenAI jobs")
+                .register(registry);
+        Gauge.builder("genai.scratch.used", scratchSpace, ScratchSpace::getUsedSpace)
+                .description("Size of the temporary files held by GenAI jobs")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("genai.backpressure.paused", backpressureController, controller -> controller.isPaused() ? 1 : 0)
+                .description("Whether Alfresco event consumption is paused by backpressure")
+                .register(registry);
+        for (Bulkhead bulkhead : genAiClient.getBulkheads()) {
+            Gauge.builder("genai.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Requests in progress to the GenAI endpoint")
+                    .tag("endpoint", bulkhead.getName())
+                    .register(registry);
+            Gauge.builder("genai.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .description("Requests waiting for the GenAI endpoint")
+                    .tag("endpoint", bulkhead.getName())
+                    .register(registry);
+            FunctionCounter.builder("genai.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .description("Requests rejected because the bulkhead of the GenAI endpoint was full")
+                    .tag("endpoint", bulkhead.getName())
+                    .register(registry);
+            FunctionTimer.builder("genai.bulkhead.wait", bulkhead, Bulkhead::getAcquired,
+                            b -> b.getTotalQueueTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                    .description("Time spent waiting in the bulkhead of the GenAI endpoint")
+                    .tag("endpoint", bulkhead.getName())
+                    .register(registry);
+        }
+        for (CircuitBreaker circuitBreaker : genAiClient.getCircuitBreakers()) {
+            Gauge.builder("genai.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                    .description("State of the circuit breaker of the GenAI endpoint (0 closed, 1 open, 2 half-open)")
+                    .tag("endpoint", circuitBreaker.getName())
+                    .register(registry);
+            Gauge.builder("genai.circuit.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+                    .description("Failure rate in percentage of the recent requests to the GenAI endpoint")
+                    .tag("endpoint", circuitBreaker.getName())
+                    .register(registry);
+            FunctionCounter.builder("genai.circuit.not.permitted", circuitBreaker, CircuitBreaker::getNotPermitted)
+                    .description("Requests rejected because the circuit of the GenAI endpoint was open")
+                    .tag("endpoint", circuitBreaker.getName())
+                    .register(registry);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.alfresco.genai.model;
+
+/**
+ * The {@code Enrichment} class represents the results of several GenAI operations applied to a document in a single
+ * pass: the summary and tags, the term selected from a term list and the answer to a question. Operations that were
+ * not requested are left empty.
+ *
+ * <p>Instances of this class are used to encapsulate enrichment information obtained from AI services.
+ */
+public class Enrichment {
+
+    /**
+     * The summary and tags of the document, or {@code null} if the summary was not requested.
+     */
+    private Summary summary;
+
+    /**
+     * The term selected for the document, or {@code null} if the classification was not requested.
+     */
+    private Term term;
+
+    /**
+     * The answer to the question, or {@code null} if no question was asked.
+     */
+    private Answer answer;
+
+    /**
+     * Gets the summary and tags of the document.
+     *
+     * @return The summary, or {@code null} if the summary was not requested.
+     */
+    public Summary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Sets the summary and tags of the document and returns the current instance for method chaining.
+     *
+     * @param summary The summary to set.
+     * @return The current {@code Enrichment} instance.
+     */
+    public Enrichment summary(Summary summary) {
+        this.summary = summary;
+        return this;
+    }
+
+    /**
+     * Gets the term selected for the document.
+     *
+     * @return The term, or {@code null} if the classification was not requested.
+     */
+    public Term getTerm() {
+        return term;
+    }
+
+    /**
+     * Sets the term selected for the document and returns the current instance for method chaining.
+     *
+     * @param term The term to set.
+     * @return The current {@code Enrichment} instance.
+     */
+    public Enrichment term(Term term) {
+        this.term = term;
+        return this;
+    }
+
+    /**
+     * Gets the answer to the question.
+     *
+     * @return The answer, or {@code null} if no question was asked.
+     */
+    public Answer getAnswer() {
+        return answer;
+    }
+
+    /**
+     * Sets the answer to the question and returns the current instance for method chaining.
+     *
+     * @param answer The answer to set.
+     * @return The current {@code Enrichment} instance.
+     */
+    public Enrichment answer(Answer answer) {
+        this.answer = answer;
+        return this;
+    }
+
+}
@@ -0,0 +1,162 @@
+package org.alfresco.genai.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code Bulkhead} class limits the number of concurrent requests to a GenAI service endpoint, so a flood of
+ * requests to one endpoint doesn't starve the others. Requests exceeding the concurrency limit wait in a bounded
+ * queue; when the queue is full, the request is rejected with a {@link BulkheadFullException}.
+ *
+ * <p>The bulkhead keeps counters of rejected requests and of the time spent waiting in the queue.
+ */
+public class Bulkhead {
+
+    /**
+     * Name of the bulkhead, usually the GenAI endpoint.
+     */
+    final String name;
+
+    /**
+     * Maximum number of concurrent requests.
+     */
+    final int maxConcurrent;
+
+    /**
+     * Maximum number of requests waiting for a free slot.
+     */
+    final int maxQueued;
+
+    final Semaphore semaphore;
+    final AtomicInteger queued = new AtomicInteger();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder acquired = new LongAdder();
+    final LongAdder totalQueueNanos = new LongAdder();
+    final AtomicLong maxQueueNanos = new AtomicLong();
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param name          Name of the bulkhead.
+     * @param maxConcurrent Maximum number of concurrent requests.
+     * @param maxQueued     Maximum number of requests waiting for a free slot.
+     */
+    public Bulkhead(String name, int maxConcurrent, int maxQueued) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.semaphore = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Acquires a slot, waiting in the queue when the concurrency limit has been reached.
+     *
+     * @throws BulkheadFullException If the queue is full.
+     * @throws InterruptedIOException If interrupted while waiting in the queue.
+     */
+    public void acquire() throws IOException {
+        if (semaphore.tryAcquire()) {
+            recordQueueTime(0);
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new BulkheadFullException(name);
+        }
+        long start = System.nanoTime();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for bulkhead " + name);
+        } finally {
+            queued.decrementAndGet();
+        }
+        recordQueueTime(System.nanoTime() - start);
+    }
+
+    /**
+     * Releases a slot previously acquired.
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    void recordQueueTime(long nanos) {
+        acquired.increment();
+        totalQueueNanos.add(nanos);
+        maxQueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Gets the name of the bulkhead.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of requests currently running.
+     *
+     * @return The number of active requests.
+     */
+    public int getActive() {
+        return maxConcurrent - semaphore.availablePermits();
+    }
+
+    /**
+     * Gets the number of requests currently waiting for a free slot.
+     *
+     * @return The number of queued requests.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Gets the total number of requests rejected because the queue was full.
+     *
+     * @return The number of rejected requests.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the total number of requests that acquired a slot.
+     *
+     * @return The number of acquired slots.
+     */
+    public long getAcquired() {
+        return acquired.sum();
+    }
+
+    /**
+     * Gets the total time spent by requests waiting for a free slot.
+     *
+     * @param unit The time unit of the result.
+     * @return The total queue time.
+     */
+    public long getTotalQueueTime(TimeUnit unit) {
+        return unit.convert(totalQueueNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the maximum time spent by a request waiting for a free slot.
+     *
+     * @param unit The time unit of the result.
+     * @return The maximum queue time.
+     */
+    public long getMaxQueueTime(TimeUnit unit) {
+        return unit.convert(maxQueueNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,20 @@
+package org.alfresco.genai.service;
+
+import java.io.IOException;
+
+/**
+ * The {@code BulkheadFullException} is thrown when a request to the GenAI service is rejected because the
+ * {@link Bulkhead} of the endpoint has no free slot nor room in its queue.
+ */
+public class BulkheadFullException extends IOException {
+
+    /**
+     * Creates the exception for the given bulkhead.
+     *
+     * @param name Name of the bulkhead.
+     */
+    public BulkheadFullException(String name) {
+        super("Bulkhead " + name + " is full");
+    }
+
+}
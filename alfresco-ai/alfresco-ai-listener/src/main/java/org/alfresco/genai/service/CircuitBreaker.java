@@ -0,0 +1,220 @@
+package org.alfresco.genai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code CircuitBreaker} class stops sending requests to a GenAI service endpoint that is failing, so an outage
+ * of the GenAI stack costs a fast failure per request instead of a connection or read timeout.
+ *
+ * <p>The circuit breaker records the outcome of the most recent requests. When the failure rate of the window exceeds
+ * the threshold, the circuit opens and requests are rejected with a {@link CircuitBreakerOpenException}. Once the open
+ * duration has elapsed, the circuit becomes half-open and a single probe request is allowed: the circuit closes when
+ * the probe succeeds and opens again when it fails.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * States of the circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Name of the circuit breaker, usually the GenAI endpoint.
+     */
+    final String name;
+
+    /**
+     * Outcome of the most recent requests, {@code true} for failures.
+     */
+    final boolean[] window;
+
+    /**
+     * Minimum number of requests recorded before the failure rate is evaluated.
+     */
+    final int minimumCalls;
+
+    /**
+     * Failure rate in percentage that opens the circuit.
+     */
+    final int failureRateThreshold;
+
+    /**
+     * Time in milliseconds the circuit stays open before allowing a probe request.
+     */
+    final long openDuration;
+
+    State state = State.CLOSED;
+    int windowIndex;
+    int windowCount;
+    int windowFailures;
+    long openedAt;
+    boolean probeInFlight;
+    final LongAdder notPermitted = new LongAdder();
+
+    /**
+     * Creates a circuit breaker.
+     *
+     * @param name                 Name of the circuit breaker.
+     * @param windowSize           Number of recent requests used to compute the failure rate.
+     * @param minimumCalls         Minimum number of requests recorded before the failure rate is evaluated.
+     * @param failureRateThreshold Failure rate in percentage that opens the circuit.
+     * @param openDuration         Time in seconds the circuit stays open before allowing a probe request.
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold, long openDuration) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = TimeUnit.SECONDS.toMillis(openDuration);
+    }
+
+    /**
+     * Checks if a request is allowed without acquiring the permission, so the caller can skip preparing a request
+     * that would be rejected.
+     *
+     * @throws CircuitBreakerOpenException If the circuit is open or the half-open probe is already in flight.
+     */
+    public synchronized void checkPermission() throws CircuitBreakerOpenException {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN && now - openedAt < openDuration) {
+            throw new CircuitBreakerOpenException(name, openedAt + openDuration - now);
+        }
+        if (state == State.HALF_OPEN && probeInFlight) {
+            throw new CircuitBreakerOpenException(name, openDuration);
+        }
+    }
+
+    /**
+     * Acquires the permission to perform a request. When the open duration has elapsed, the circuit becomes half-open
+     * and the caller performs the probe request.
+     *
+     * @throws CircuitBreakerOpenException If the circuit is open or the half-open probe is already in flight.
+     */
+    public synchronized void acquirePermission() throws CircuitBreakerOpenException {
+        try {
+            checkPermission();
+        } catch (CircuitBreakerOpenException e) {
+            notPermitted.increment();
+            throw e;
+        }
+        if (state == State.OPEN) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            probeInFlight = true;
+        }
+    }
+
+    /**
+     * Records a successful request, closing the circuit when it was the half-open probe.
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a failed request, opening the circuit when it was the half-open probe or when the failure rate exceeds
+     * the threshold.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCount >= minimumCalls
+                && windowFailures * 100 >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    /**
+     * Releases the permission of a request that was not performed, so a half-open probe can be attempted again.
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    void open() {
+        LOG.warn("Circuit breaker {} is open, failure rate {}%", name, Math.round(getFailureRate()));
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        probeInFlight = false;
+    }
+
+    void close() {
+        LOG.info("Circuit breaker {} is closed", name);
+        state = State.CLOSED;
+        probeInFlight = false;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    /**
+     * Gets the name of the circuit breaker.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the current state of the circuit breaker.
+     *
+     * @return The state.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the failure rate of the recorded requests.
+     *
+     * @return The failure rate in percentage, or {@code 0} when no request has been recorded.
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : windowFailures * 100.0 / windowCount;
+    }
+
+    /**
+     * Gets the total number of requests rejected because the circuit was open.
+     *
+     * @return The number of rejected requests.
+     */
+    public long getNotPermitted() {
+        return notPermitted.sum();
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.alfresco.genai.service;
+
+import java.io.IOException;
+
+/**
+ * The {@code CircuitBreakerOpenException} is thrown when a request to the GenAI service is not performed because the
+ * {@link CircuitBreaker} of the endpoint is open.
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+    /**
+     * Time in milliseconds until the circuit breaker allows a probe request.
+     */
+    final long retryAfter;
+
+    /**
+     * Creates the exception for the given circuit breaker.
+     *
+     * @param name       Name of the circuit breaker.
+     * @param retryAfter Time in milliseconds until the circuit breaker allows a probe request.
+     */
+    public CircuitBreakerOpenException(String name, long retryAfter) {
+        super("Circuit breaker " + name + " is open");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the time until the circuit breaker allows a probe request.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -2,10 +2,13 @@ package org.alfresco.genai.service;
 
 import jakarta.annotation.PostConstruct;
 import okhttp3.*;
+import org.alfresco.genai.metrics.PipelineMetrics;
 import org.alfresco.genai.model.Answer;
 import org.alfresco.genai.model.Description;
+import org.alfresco.genai.model.Enrichment;
 import org.alfresco.genai.model.Summary;
 import org.alfresco.genai.model.Term;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.json.JsonParser;
 import org.springframework.boot.json.JsonParserFactory;
@@ -13,7 +16,11 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -21,6 +28,22 @@ import java.util.concurrent.TimeUnit;
  * The {@code GenAiClient} class is a Spring service that interacts with the GenAI service to obtain document summaries
  * and answers to specific questions. It uses an {@link OkHttpClient} to perform HTTP requests to the GenAI service
  * endpoint, and it is configured with properties such as the GenAI service URL and request timeout.
+ *
+ * <p>Every endpoint has its own {@link Bulkhead}, so each model of the GenAI stack can be saturated independently,
+ * and its own {@link CircuitBreaker}, so requests fail fast while the endpoint is down.
+ *
+ * <p>Responses are cached by the {@link GenAiResultCache}, so byte-identical contents sent with the same parameters
+ * are answered without calling the GenAI service again.
+ *
+ * <p>Every operation accepts the content either as a {@link File} or as a {@link ContentStream} piped from the Alfresco
+ * Repository while it is uploaded. Responses to streamed contents are not cached, since the content is not known
+ * before the request is sent.
+ *
+ * <p>Requests are synchronous: every request is run by a worker of the {@link org.alfresco.genai.job.JobDispatcher},
+ * which has to wait for the result anyway to write it to the node while keeping the jobs of the node in order. The
+ * number of requests in flight is bounded by the number of workers, so more workers are configured to keep more
+ * requests in flight. Unlike the applier, which pages through many nodes from a single thread, the listener offers no
+ * asynchronous variant.
  */
 @Service
 public class GenAiClient {
@@ -37,26 +60,327 @@ public class GenAiClient {
     @Value("${genai.request.timeout}")
     Integer genaiTimeout;
 
+    /**
+     * Maximum number of idle connections kept open to the GenAI service obtained from configuration.
+     */
+    @Value("${genai.http.max.idle.connections}")
+    int maxIdleConnections;
+
+    /**
+     * Maximum number of concurrent requests to the summary endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.summary.concurrency}")
+    int summaryConcurrency;
+
+    /**
+     * Maximum number of requests waiting for the summary endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.summary.queue}")
+    int summaryQueue;
+
+    /**
+     * Maximum number of concurrent requests to the prompt endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.prompt.concurrency}")
+    int promptConcurrency;
+
+    /**
+     * Maximum number of requests waiting for the prompt endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.prompt.queue}")
+    int promptQueue;
+
+    /**
+     * Maximum number of concurrent requests to the classify endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.classify.concurrency}")
+    int classifyConcurrency;
+
+    /**
+     * Maximum number of requests waiting for the classify endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.classify.queue}")
+    int classifyQueue;
+
+    /**
+     * Maximum number of concurrent requests to the describe endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.describe.concurrency}")
+    int describeConcurrency;
+
+    /**
+     * Maximum number of requests waiting for the describe endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.describe.queue}")
+    int describeQueue;
+
+    /**
+     * Maximum number of concurrent requests to the enrich endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.enrich.concurrency}")
+    int enrichConcurrency;
+
+    /**
+     * Maximum number of requests waiting for the enrich endpoint obtained from configuration.
+     */
+    @Value("${genai.bulkhead.enrich.queue}")
+    int enrichQueue;
+
+    /**
+     * Number of recent requests to every endpoint used to compute the failure rate obtained from configuration.
+     */
+    @Value("${genai.circuit.window.size}")
+    int circuitWindowSize;
+
+    /**
+     * Minimum number of requests recorded before the failure rate is evaluated obtained from configuration.
+     */
+    @Value("${genai.circuit.minimum.calls}")
+    int circuitMinimumCalls;
+
+    /**
+     * Failure rate in percentage that opens the circuit of an endpoint obtained from configuration.
+     */
+    @Value("${genai.circuit.failure.rate.threshold}")
+    int circuitFailureRateThreshold;
+
+    /**
+     * Time in seconds the circuit of an endpoint stays open before allowing a probe request obtained from
+     * configuration.
+     */
+    @Value("${genai.circuit.open.duration}")
+    long circuitOpenDuration;
+
+    /**
+     * Autowired instance of {@link RetryPolicy} for deciding which failures are recorded by the circuit breakers.
+     */
+    @Autowired
+    RetryPolicy retryPolicy;
+
+    /**
+     * Autowired instance of {@link GenAiResultCache} for reusing the responses obtained for identical contents.
+     */
+    @Autowired
+    GenAiResultCache resultCache;
+
+    /**
+     * Autowired instance of {@link PipelineMetrics} for recording the duration and payload of GenAI requests.
+     */
+    @Autowired
+    PipelineMetrics pipelineMetrics;
+
     /**
      * Static instance of {@link JsonParser} to parse JSON responses from the GenAI service.
      */
     static final JsonParser JSON_PARSER = JsonParserFactory.getJsonParser();
 
+    /**
+     * Media type of PDF contents.
+     */
+    static final MediaType PDF = MediaType.parse("application/pdf");
+
+    /**
+     * Media type of picture contents.
+     */
+    static final MediaType PICTURE = MediaType.parse("Binary data");
+
     /**
      * The OkHttpClient instance for making HTTP requests to the GenAI service.
      */
     OkHttpClient client;
 
     /**
-     * Initializes the OkHttpClient with specified timeouts during bean creation.
+     * Bulkhead limiting the concurrent requests to the summary endpoint.
+     */
+    Bulkhead summaryBulkhead;
+
+    /**
+     * Bulkhead limiting the concurrent requests to the prompt endpoint.
+     */
+    Bulkhead promptBulkhead;
+
+    /**
+     * Bulkhead limiting the concurrent requests to the classify endpoint.
+     */
+    Bulkhead classifyBulkhead;
+
+    /**
+     * Bulkhead limiting the concurrent requests to the describe endpoint.
+     */
+    Bulkhead describeBulkhead;
+
+    /**
+     * Bulkhead limiting the concurrent requests to the enrich endpoint.
+     */
+    Bulkhead enrichBulkhead;
+
+    /**
+     * Circuit breakers of the endpoints, indexed by endpoint name.
+     */
+    final Map<String, CircuitBreaker> circuitBreakers = new LinkedHashMap<>();
+
+    /**
+     * Initializes the OkHttpClient with specified timeouts and connection pool, the bulkheads and the circuit breakers
+     * of the endpoints during bean creation.
      */
     @PostConstruct
     public void init() {
         client = new OkHttpClient()
                 .newBuilder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES))
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(genaiTimeout, TimeUnit.SECONDS)
                 .build();
+        summaryBulkhead = new Bulkhead("summary", summaryConcurrency, summaryQueue);
+        promptBulkhead = new Bulkhead("prompt", promptConcurrency, promptQueue);
+        classifyBulkhead = new Bulkhead("classify", classifyConcurrency, classifyQueue);
+        describeBulkhead = new Bulkhead("describe", describeConcurrency, describeQueue);
+        enrichBulkhead = new Bulkhead("enrich", enrichConcurrency, enrichQueue);
+        for (Bulkhead bulkhead : getBulkheads()) {
+            circuitBreakers.put(bulkhead.getName(), new CircuitBreaker(bulkhead.getName(),
+                    circuitWindowSize, circuitMinimumCalls, circuitFailureRateThreshold, circuitOpenDuration));
+        }
+    }
+
+    /**
+     * Gets the bulkheads of the GenAI endpoints.
+     *
+     * @return The bulkheads of the summary, prompt, classify, describe and enrich endpoints.
+     */
+    public List<Bulkhead> getBulkheads() {
+        return List.of(summaryBulkhead, promptBulkhead, classifyBulkhead, describeBulkhead, enrichBulkhead);
+    }
+
+    /**
+     * Gets the circuit breakers of the GenAI endpoints.
+     *
+     * @return The circuit breakers of the summary, prompt, classify, describe and enrich endpoints.
+     */
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers.values();
+    }
+
+    /**
+     * Checks if the circuit breaker of an endpoint allows requests, so the caller can fail fast before retrieving
+     * the content to be sent.
+     *
+     * @param endpoint The name of the endpoint (summary, prompt, classify, describe or enrich).
+     * @throws CircuitBreakerOpenException If the circuit of the endpoint is open.
+     */
+    public void checkAvailable(String endpoint) throws CircuitBreakerOpenException {
+        circuitBreakers.get(endpoint).checkPermission();
+    }
+
+    /**
+     * Executes a request within the circuit breaker and the bulkhead of the endpoint and returns the body of the
+     * response. Transient failures, such as timeouts or 5xx responses, are recorded as failures by the circuit
+     * breaker, while requests rejected by the bulkhead are not recorded. The time spent
+     * uploading the content and waiting for the LLM, excluding the time waiting in the bulkhead, and the size of the
+     * request and the response are recorded by the {@link PipelineMetrics}.
+     *
+     * @param bulkhead The bulkhead of the endpoint.
+     * @param request  The request.
+     * @return The body of the response.
+     * @throws IOException If the circuit is open, the bulkhead is full, an I/O error occurs during the HTTP request
+     *                     or the GenAI service returns an error status.
+     */
+    String execute(Bulkhead bulkhead, Request request) throws IOException {
+        String endpoint = bulkhead.getName();
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        circuitBreaker.acquirePermission();
+        try {
+            bulkhead.acquire();
+        } catch (IOException e) {
+            circuitBreaker.onIgnored();
+            throw e;
+        }
+        try {
+            pipelineMetrics.recordPayload(PipelineMetrics.GENAI_REQUEST, endpoint, request.body().contentLength());
+            String response = pipelineMetrics.time(PipelineMetrics.GENAI, endpoint, () -> {
+                try (Response httpResponse = client.newCall(request).execute()) {
+                    if (!httpResponse.isSuccessful()) {
+                        throw new GenAiResponseException(endpoint, httpResponse.code(), httpResponse.message());
+                    }
+                    return httpResponse.body().string();
+                }
+            });
+            circuitBreaker.onSuccess();
+            pipelineMetrics.recordPayload(PipelineMetrics.GENAI_RESPONSE, endpoint,
+                    response.getBytes(StandardCharsets.UTF_8).length);
+            return response;
+        } catch (IOException e) {
+            if (retryPolicy.isTransient(e)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onIgnored();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Executes a request as {@link #execute(Bulkhead, Request)} does, unless the response for the same content and
+     * parameters is found in the {@link GenAiResultCache} for the model of the endpoint. Successful responses are
+     * stored in the cache under the model they report.
+     *
+     * @param bulkhead   The bulkhead of the endpoint.
+     * @param request    The request.
+     * @param content    The file sent in the request, or {@code null} if the content is streamed.
+     * @param parameters The parameters of the request that change the response.
+     * @return The body of the response.
+     * @throws IOException If the content cannot be read or the request fails.
+     */
+    String executeCached(Bulkhead bulkhead, Request request, File content, String... parameters) throws IOException {
+        if (!resultCache.isEnabled()) {
+            return execute(bulkhead, request);
+        }
+        String endpoint = bulkhead.getName();
+        String digest = content != null ? resultCache.digest(content, endpoint, parameters) : null;
+        String response = digest != null ? lookup(endpoint, digest) : null;
+        if (response == null) {
+            response = execute(bulkhead, request);
+            cache(endpoint, digest, response);
+        }
+        return response;
+    }
+
+    /**
+     * Looks up the response of a request in the {@link GenAiResultCache}, under the model last reported by the
+     * endpoint. Requests to an endpoint that has not responded yet are not looked up, since its model is unknown.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param digest   The digest of the request.
+     * @return The cached response, or {@code null} if it is not cached.
+     */
+    String lookup(String endpoint, String digest) {
+        String model = resultCache.getModel(endpoint);
+        String response = model != null ? resultCache.get(resultCache.key(digest, model)) : null;
+        pipelineMetrics.recordCacheLookup(endpoint, response != null);
+        return response;
+    }
+
+    /**
+     * Records the model reported in a response of an endpoint and stores the response in the {@link GenAiResultCache}
+     * under that model.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param digest   The digest of the request, or {@code null} if the content is streamed and cannot be cached.
+     * @param response The body of the response.
+     */
+    void cache(String endpoint, String digest, String response) {
+        Object model = JSON_PARSER.parseMap(response).get("model");
+        if (model == null) {
+            return;
+        }
+        resultCache.setModel(endpoint, model.toString());
+        if (digest != null) {
+            resultCache.put(resultCache.key(digest, model.toString()), response);
+        }
     }
 
     /**
@@ -67,26 +391,50 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Summary getSummary(File pdfFile) throws IOException {
+        return parseSummary(executeCached(summaryBulkhead, summaryRequest(pdfFile.getName(),
+                RequestBody.create(pdfFile, PDF)), pdfFile));
+    }
+
+    /**
+     * Retrieves a document summary from the GenAI service for the provided PDF stream.
+     *
+     * @param pdfStream The PDF content for which the summary is requested.
+     * @return A {@link Summary} object containing the summary, tags, and model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Summary getSummary(ContentStream pdfStream) throws IOException {
+        return parseSummary(executeCached(summaryBulkhead, summaryRequest(pdfStream.getName(),
+                pdfStream.toRequestBody(PDF)), null));
+    }
+
+    /**
+     * Builds the request to the summary endpoint for a PDF content.
+     */
+    Request summaryRequest(String fileName, RequestBody content) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("file", pdfFile.getName(), RequestBody.create(pdfFile, MediaType.parse("application/pdf")))
+                .addFormDataPart("file", fileName, content)
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(genaiUrl + "/summary")
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
+
+    /**
+     * Parses the response of the summary endpoint.
+     */
+    static Summary parseSummary(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Summary()
                 .summary(aiResponse.get("summary").toString().trim())
                 .tags(Arrays.asList(aiResponse.get("tags").toString().split(",", -1)))
                 .model(aiResponse.get("model").toString());
-
     }
 
     /**
@@ -98,11 +446,32 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Answer getAnswer(File pdfFile, String question) throws IOException {
+        return parseAnswer(executeCached(promptBulkhead, answerRequest(pdfFile.getName(),
+                RequestBody.create(pdfFile, PDF), question), pdfFile, question));
+    }
+
+    /**
+     * Retrieves an answer to a specific question from the GenAI service for the provided PDF stream.
+     *
+     * @param pdfStream The PDF content of the document related to the question.
+     * @param question  The question for which an answer is requested.
+     * @return An {@link Answer} object containing the answer and the model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Answer getAnswer(ContentStream pdfStream, String question) throws IOException {
+        return parseAnswer(executeCached(promptBulkhead, answerRequest(pdfStream.getName(),
+                pdfStream.toRequestBody(PDF), question), null, question));
+    }
+
+    /**
+     * Builds the request to the prompt endpoint for a PDF content.
+     */
+    Request answerRequest(String fileName, RequestBody content, String question) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("file", pdfFile.getName(), RequestBody.create(pdfFile, MediaType.parse("application/pdf")))
+                .addFormDataPart("file", fileName, content)
                 .build();
 
         HttpUrl httpUrl = HttpUrl.parse(genaiUrl + "/prompt")
@@ -110,18 +479,22 @@ public class GenAiClient {
                 .addQueryParameter("prompt", question)
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(httpUrl)
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
+
+    /**
+     * Parses the response of the prompt endpoint.
+     */
+    static Answer parseAnswer(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Answer()
                 .answer(aiResponse.get("answer").toString().trim())
                 .model(aiResponse.get("model").toString());
-
     }
 
     /**
@@ -133,11 +506,32 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Term getTerm(File pdfFile, String termList) throws IOException {
+        return parseTerm(executeCached(classifyBulkhead, termRequest(pdfFile.getName(),
+                RequestBody.create(pdfFile, PDF), termList), pdfFile, termList));
+    }
+
+    /**
+     * Selects a term from a term list using the GenAI service for the provided PDF stream.
+     *
+     * @param pdfStream The PDF content of the document to be classified.
+     * @param termList  List of terms that includes options to be selected.
+     * @return An {@link Term} object containing the term and the model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Term getTerm(ContentStream pdfStream, String termList) throws IOException {
+        return parseTerm(executeCached(classifyBulkhead, termRequest(pdfStream.getName(),
+                pdfStream.toRequestBody(PDF), termList), null, termList));
+    }
+
+    /**
+     * Builds the request to the classify endpoint for a PDF content.
+     */
+    Request termRequest(String fileName, RequestBody content, String termList) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("file", pdfFile.getName(), RequestBody.create(pdfFile, MediaType.parse("application/pdf")))
+                .addFormDataPart("file", fileName, content)
                 .build();
 
         HttpUrl httpUrl = HttpUrl.parse(genaiUrl + "/classify")
@@ -145,19 +539,22 @@ public class GenAiClient {
                 .addQueryParameter("termList", "\"" + termList + "\"")
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(httpUrl)
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
 
+    /**
+     * Parses the response of the classify endpoint.
+     */
+    static Term parseTerm(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Term()
                 .term(aiResponse.get("term").toString().trim())
                 .model(aiResponse.get("model").toString());
-
     }
 
     /**
@@ -168,30 +565,142 @@ public class GenAiClient {
      * @throws IOException If an I/O error occurs during the HTTP request or response processing.
      */
     public Description getDescription(File pictureFile) throws IOException {
+        return parseDescription(executeCached(describeBulkhead, descriptionRequest(pictureFile.getName(),
+                RequestBody.create(pictureFile, PICTURE)), pictureFile));
+    }
+
+    /**
+     * Describes a picture using the GenAI service for the provided picture stream.
+     *
+     * @param pictureStream The content of the picture.
+     * @return An {@link Description} object containing the description and the model information.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Description getDescription(ContentStream pictureStream) throws IOException {
+        return parseDescription(executeCached(describeBulkhead, descriptionRequest(pictureStream.getName(),
+                pictureStream.toRequestBody(PICTURE)), null));
+    }
+
+    /**
+     * Builds the request to the describe endpoint for a picture content.
+     */
+    Request descriptionRequest(String fileName, RequestBody content) {
 
         RequestBody requestBody = new MultipartBody
                 .Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart("image", pictureFile.getName(), RequestBody.create(pictureFile, MediaType.parse("Binary data")))
+                .addFormDataPart("image", fileName, content)
                 .build();
 
         HttpUrl httpUrl = HttpUrl.parse(genaiUrl + "/describe")
                 .newBuilder()
                 .build();
 
-        Request request = new Request
+        return new Request
                 .Builder()
                 .url(httpUrl)
                 .post(requestBody)
                 .build();
 
-        String response = client.newCall(request).execute().body().string();
+    }
 
+    /**
+     * Parses the response of the describe endpoint.
+     */
+    static Description parseDescription(String response) {
         Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
         return new Description()
                 .description(aiResponse.get("description").toString().trim())
                 .model(aiResponse.get("model").toString());
+    }
 
+    /**
+     * Applies several operations to the provided PDF file in a single request to the GenAI service, so the document
+     * is uploaded, split and embedded only once. Operations not requested are left empty in the result.
+     *
+     * @param pdfFile  The PDF file to be enriched.
+     * @param summary  Whether the summary and tags of the document are requested.
+     * @param termList List of terms to select a term from, or {@code null} if the classification is not requested.
+     * @param question The question to be answered, or {@code null} if no answer is requested.
+     * @return An {@link Enrichment} object containing the results of the requested operations.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Enrichment enrich(File pdfFile, boolean summary, String termList, String question) throws IOException {
+        return parseEnrichment(executeCached(enrichBulkhead, enrichRequest(pdfFile.getName(),
+                RequestBody.create(pdfFile, PDF), summary, termList, question),
+                pdfFile, String.valueOf(summary), termList, question), summary, termList, question);
+    }
+
+    /**
+     * Applies several operations to the provided PDF stream in a single request to the GenAI service.
+     *
+     * @param pdfStream The PDF content to be enriched.
+     * @param summary   Whether the summary and tags of the document are requested.
+     * @param termList  List of terms to select a term from, or {@code null} if the classification is not requested.
+     * @param question  The question to be answered, or {@code null} if no answer is requested.
+     * @return An {@link Enrichment} object containing the results of the requested operations.
+     * @throws IOException If an I/O error occurs during the HTTP request or response processing.
+     */
+    public Enrichment enrich(ContentStream pdfStream, boolean summary, String termList, String question)
+            throws IOException {
+        return parseEnrichment(executeCached(enrichBulkhead, enrichRequest(pdfStream.getName(),
+                pdfStream.toRequestBody(PDF), summary, termList, question),
+                null, String.valueOf(summary), termList, question), summary, termList, question);
+    }
+
+    /**
+     * Builds the request to the enrich endpoint for a PDF content.
+     */
+    Request enrichRequest(String fileName, RequestBody content, boolean summary, String termList, String question) {
+
+        RequestBody requestBody = new MultipartBody
+                .Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("file", fileName, content)
+                .build();
+
+        HttpUrl.Builder httpUrlBuilder = HttpUrl.parse(genaiUrl + "/enrich")
+                .newBuilder()
+                .addQueryParameter("summary", String.valueOf(summary));
+        if (termList != null) {
+            httpUrlBuilder.addQueryParameter("termList", "\"" + termList + "\"");
+        }
+        if (question != null) {
+            httpUrlBuilder.addQueryParameter("prompt", question);
+        }
+
+        return new Request
+                .Builder()
+                .url(httpUrlBuilder.build())
+                .post(requestBody)
+                .build();
+
+    }
+
+    /**
+     * Parses the response of the enrich endpoint, filling only the requested operations.
+     */
+    static Enrichment parseEnrichment(String response, boolean summary, String termList, String question) {
+        Map<String, Object> aiResponse = JSON_PARSER.parseMap(response);
+        String model = aiResponse.get("model").toString();
+        Enrichment enrichment = new Enrichment();
+        if (summary) {
+            enrichment.summary(new Summary()
+                    .summary(aiResponse.get("summary").toString().trim())
+                    .tags(Arrays.asList(aiResponse.get("tags").toString().split(",", -1)))
+                    .model(model));
+        }
+        if (termList != null) {
+            enrichment.term(new Term()
+                    .term(aiResponse.get("term").toString().trim())
+                    .model(model));
+        }
+        if (question != null) {
+            enrichment.answer(new Answer()
+                    .answer(aiResponse.get("answer").toString().trim())
+                    .model(model));
+        }
+        return enrichment;
     }
 
 }
@@ -0,0 +1,74 @@
+package org.alfresco.genai.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code NodeChanges} class collects the property, aspect and tag changes produced by the tasks of a job for a
+ * node of the Alfresco Repository, so every result of the job (summary, term, answer, description) is written with a
+ * single {@code updateNode} call and a single request creating all the tags once every task has been run.
+ *
+ * <p>Properties added later override the previous values.
+ */
+public class NodeChanges {
+
+    /**
+     * The unique identifier of the node.
+     */
+    final String uuid;
+
+    /**
+     * The properties to be set.
+     */
+    final Map<String, Object> properties = new HashMap<>();
+
+    /**
+     * The aspects to be added.
+     */
+    final Set<String> aspects = new LinkedHashSet<>();
+
+    /**
+     * The tags to be created.
+     */
+    final Set<String> tags = new LinkedHashSet<>();
+
+    /**
+     * Creates an empty set of changes for a node.
+     *
+     * @param uuid The unique identifier of the node.
+     */
+    public NodeChanges(String uuid) {
+        this.uuid = uuid;
+    }
+
+    /**
+     * Gets the unique identifier of the node.
+     *
+     * @return The node UUID.
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Checks if no change has been collected.
+     *
+     * @return {@code true} if there is nothing to be written, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return properties.isEmpty() && aspects.isEmpty() && tags.isEmpty();
+    }
+
+    /**
+     * Merges new changes into the collected ones.
+     */
+    void add(Map<String, Object> properties, Collection<String> aspects, Collection<String> tags) {
+        this.properties.putAll(properties);
+        this.aspects.addAll(aspects);
+        this.tags.addAll(tags);
+    }
+
+}
@@ -1,30 +1,40 @@
 package org.alfresco.genai.service;
 
 import org.alfresco.core.handler.NodesApi;
-import org.alfresco.core.handler.TagsApi;
 import org.alfresco.core.model.NodeBodyUpdate;
-import org.alfresco.core.model.TagBody;
 import org.alfresco.genai.model.Answer;
+import org.alfresco.genai.model.Enrichment;
 import org.alfresco.genai.model.Summary;
 import org.alfresco.genai.model.Term;
 import org.alfresco.genai.model.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.Serializable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * The {@code NodeUpdateService} class is a Spring service responsible for updating document nodes in an Alfresco
- * Repository with summary information and answers. It utilizes the Alfresco Nodes API and Tags API for updating node
- * properties and creating tags associated with the document identified by its UUID.
+ * Repository with summary information and answers. It utilizes the Alfresco Nodes API for updating node properties
+ * and creating tags associated with the document identified by its UUID.
+ *
+ * <p>The results of the tasks of a job are added to {@link NodeChanges}, which are written once every task of the job
+ * has been run, so the node is updated with a single request whatever the number of tasks.
  */
 @Service
 public class NodeUpdateService {
 
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(NodeUpdateService.class);
+
     /**
      * Constant representing the property name for tags.
      */
@@ -103,20 +113,57 @@ public class NodeUpdateService {
     NodesApi nodesApi;
 
     /**
-     * Autowired instance of {@link TagsApi} for communication with the Alfresco Tags API.
+     * Autowired instance of {@link ContentService} for creating the tags of a node in a single request.
+     */
+    @Autowired
+    ContentService contentService;
+
+    /**
+     * Autowired instance of {@link TermListCache} for reusing the term lists of the folders already read.
      */
     @Autowired
-    TagsApi tagsApi;
+    TermListCache termListCache;
 
     /**
-     * Updates the node properties and creates tags for the document identified by its UUID based on the provided
-     * {@link Summary} object.
+     * Adds the node properties and tags of the provided {@link Summary} object to the changes of a document.
      *
-     * @param uuid     The unique identifier of the document node.
+     * @param changes  The changes of the document node.
      * @param summary  The {@link Summary} object containing summary, tags, and model information.
      */
-    public void updateNodeSummary(String uuid, Summary summary) {
+    public void addSummary(NodeChanges changes, Summary summary) {
+        changes.add(getSummaryProperties(summary), List.of(), getSummaryTags(summary));
+    }
+
+    /**
+     * Adds the results of a single-pass enrichment to the changes of a document: the summary, term and answer
+     * properties, and the tags when the summary tags or model are configured to be stored as tags.
+     *
+     * @param changes     The changes of the document node.
+     * @param enrichment  The {@link Enrichment} object containing the results of the requested operations.
+     */
+    public void addEnrichment(NodeChanges changes, Enrichment enrichment) {
+
+        Map<String, Object> properties = new HashMap<>();
+        if (enrichment.getSummary() != null) {
+            properties.putAll(getSummaryProperties(enrichment.getSummary()));
+        }
+        if (enrichment.getTerm() != null) {
+            properties.put(termProperty, enrichment.getTerm().getTerm());
+            properties.put(termModelProperty, enrichment.getTerm().getModel());
+        }
+        if (enrichment.getAnswer() != null) {
+            properties.put(answerProperty, enrichment.getAnswer().getAnswer());
+            properties.put(answerModelProperty, enrichment.getAnswer().getModel());
+        }
+        List<String> tags = enrichment.getSummary() != null ? getSummaryTags(enrichment.getSummary()) : List.of();
+        changes.add(properties, List.of(), tags);
+
+    }
 
+    /**
+     * Builds the node properties storing the summary, and the tags and model when they are not stored as tags.
+     */
+    Map<String, Object> getSummaryProperties(Summary summary) {
         Map<String, Object> properties = new HashMap<>();
         properties.put(summaryProperty, summary.getSummary());
         if (!summaryModelProperty.equals(TAG_PROPERTY)) {
@@ -125,97 +172,141 @@ public class NodeUpdateService {
         if (!summaryTagsProperty.equals(TAG_PROPERTY)) {
             properties.put(summaryTagsProperty, summary.getTags());
         }
-        nodesApi.updateNode(uuid,
-                new NodeBodyUpdate().properties(properties),
-                null, null);
+        return properties;
+    }
+
+    /**
+     * Builds the tags for the summary model and the summary tags when they are configured to be stored as tags.
+     */
+    List<String> getSummaryTags(Summary summary) {
 
+        List<String> tags = new ArrayList<>();
         if (summaryModelProperty.equals(TAG_PROPERTY)) {
-            tagsApi.createTagForNode(uuid, new TagBody().tag(summary.getModel()), null);
+            tags.add(summary.getModel());
         }
 
         if (summaryTagsProperty.equals(TAG_PROPERTY)) {
-            summary.getTags().forEach(tag -> {
-                tagsApi.createTagForNode(uuid, new TagBody().tag(tag.replace('.', ' ').trim()), null);
-            });
+            summary.getTags().stream()
+                    .map(tag -> tag.replace('.', ' ').trim())
+                    .filter(tag -> !tag.isEmpty())
+                    .forEach(tags::add);
         }
+        return tags;
 
     }
 
     /**
-     * Updates the node properties with answer content and model information for the document identified by its UUID based
-     * on the provided {@link Answer} object.
+     * Adds the node properties with answer content and model information of the provided {@link Answer} object to the
+     * changes of a document.
      *
-     * @param uuid    The unique identifier of the document node.
+     * @param changes The changes of the document node.
      * @param answer  The {@link Answer} object containing the answer content and model information.
      */
-    public void updateNodeAnswer(String uuid, Answer answer) {
-        nodesApi.updateNode(uuid,
-                new NodeBodyUpdate()
-                        .properties(Map.of(
-                                answerProperty, answer.getAnswer(),
-                                answerModelProperty, answer.getModel())),
-                null, null);
+    public void addAnswer(NodeChanges changes, Answer answer) {
+        changes.add(
+                Map.of(
+                        answerProperty, answer.getAnswer(),
+                        answerModelProperty, answer.getModel()),
+                List.of(), List.of());
     }
 
     /**
-     * Updates the node properties with term content and model information for the document identified by its UUID based
-     * on the provided {@link Term} object.
+     * Adds the node properties with term content and model information of the provided {@link Term} object to the
+     * changes of a document.
      *
-     * @param uuid  The unique identifier of the document node.
-     * @param term  The {@link Term} object containing the answer content and model information.
-     */
-    public void updateNodeTerm(String uuid, Term term) {
-        nodesApi.updateNode(uuid,
-                new NodeBodyUpdate()
-                        .properties(Map.of(
-                                termProperty, term.getTerm(),
-                                termModelProperty, term.getModel())),
-                null, null);
+     * @param changes The changes of the document node.
+     * @param term    The {@link Term} object containing the answer content and model information.
+     */
+    public void addTerm(NodeChanges changes, Term term) {
+        changes.add(
+                Map.of(
+                        termProperty, term.getTerm(),
+                        termModelProperty, term.getModel()),
+                List.of(), List.of());
     }
 
     /**
-     * Gets the list of terms stored in the primary parent of the document uuid
+     * Gets the list of terms stored in the primary parent of the document uuid. The primary parent and its terms are
+     * looked up in the {@link TermListCache} before reading them from the repository.
      *
      * @param uuid  The unique identifier of the document node.
      */
     public String getTermList(String uuid) {
-        String primaryParentId =
-                nodesApi.listParents(uuid, "(isPrimary=true)", null, 0, 1, false, null)
-                        .getBody()
-                        .getList()
-                        .getEntries()
-                        .get(0)
-                        .getEntry()
-                        .getId();
-        Map<String, Serializable> properties = (Map<String, Serializable>)
-                nodesApi.getNode(primaryParentId, null, null, null)
-                .getBody()
-                .getEntry().getProperties();
-        return properties.get(termsProperty).toString().replace("[", "").replace("]", "");
+        long generation = termListCache.getGeneration();
+        String primaryParentId = termListCache.getParentId(uuid);
+        if (primaryParentId == null) {
+            primaryParentId =
+                    nodesApi.listParents(uuid, "(isPrimary=true)", null, 0, 1, false, null)
+                            .getBody()
+                            .getList()
+                            .getEntries()
+                            .get(0)
+                            .getEntry()
+                            .getId();
+            termListCache.putParentId(uuid, primaryParentId, generation);
+        }
+        String termList = termListCache.getTermList(primaryParentId);
+        if (termList == null) {
+            Map<?, ?> properties = (Map<?, ?>)
+                    nodesApi.getNode(primaryParentId, null, null, null)
+                    .getBody()
+                    .getEntry().getProperties();
+            termList = properties.get(termsProperty).toString().replace("[", "").replace("]", "");
+            termListCache.putTermList(primaryParentId, termList, generation);
+        }
+        return termList;
     }
 
     /**
-     * Updates the node properties with description and model information for the document identified by its UUID based
-     * on the provided {@link Description} object.
+     * Adds the node properties with description and model information of the provided {@link Description} object and
+     * the description aspect to the changes of a picture.
      *
-     * @param uuid         The unique identifier of the picture node.
+     * @param changes      The changes of the picture node.
      * @param description  The {@link Description} object containing the answer content and model information.
      */
-    public void updateNodeDescription(String uuid, Description description) {
+    public void addDescription(NodeChanges changes, Description description) {
+        changes.add(
+                Map.of(
+                        descriptionProperty, description.getDescription(),
+                        descriptionModelProperty, description.getModel()),
+                List.of(descriptionAspect), List.of());
+    }
 
-        List<String> aspectNames =
-                nodesApi.getNode(uuid, null, null, null).getBody().getEntry().getAspectNames();
-        if (!aspectNames.contains(descriptionAspect)) {
-            aspectNames.add(descriptionAspect);
+    /**
+     * Writes the changes collected for a node with a single update and a single request for the tags. Aspects are
+     * added to the ones the node already has, so the aspects of the node are only read when some aspect is pending.
+     * Properties are updated first, and a failure creating the tags is logged without failing the results already
+     * written.
+     *
+     * @param changes The changes of the node.
+     */
+    public void write(NodeChanges changes) {
+        if (!changes.properties.isEmpty() || !changes.aspects.isEmpty()) {
+            updateNode(changes);
+        }
+        if (!changes.tags.isEmpty()) {
+            try {
+                contentService.createTags(changes.uuid, new ArrayList<>(changes.tags));
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Error creating tags {} for node {}", changes.tags, changes.uuid, e);
+            }
         }
+    }
 
-        nodesApi.updateNode(uuid,
-                new NodeBodyUpdate()
-                        .properties(Map.of(
-                                descriptionProperty, description.getDescription(),
-                                descriptionModelProperty, description.getModel()))
-                        .aspectNames(aspectNames),
-                null, null);
+    /**
+     * Updates the properties and aspects of a node.
+     */
+    void updateNode(NodeChanges changes) {
+        NodeBodyUpdate nodeBodyUpdate = new NodeBodyUpdate().properties(changes.properties);
+        if (!changes.aspects.isEmpty()) {
+            List<String> aspectNames =
+                    nodesApi.getNode(changes.uuid, null, null, null).getBody().getEntry().getAspectNames();
+            changes.aspects.stream()
+                    .filter(aspect -> !aspectNames.contains(aspect))
+                    .forEach(aspectNames::add);
+            nodeBodyUpdate.aspectNames(aspectNames);
+        }
+        nodesApi.updateNode(changes.uuid, nodeBodyUpdate, null, null);
     }
 
 }
@@ -1,6 +1,9 @@
 package org.alfresco.genai.service;
 
+import org.alfresco.core.handler.NodesApi;
 import org.alfresco.core.handler.RenditionsApi;
+import org.alfresco.core.model.ContentInfo;
+import org.alfresco.core.model.Node;
 import org.alfresco.core.model.Rendition;
 import org.alfresco.core.model.RenditionBodyCreate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,37 +11,142 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.util.Map;
 
 /**
  * The {@code RenditionService} class is a Spring service responsible for managing document renditions in an Alfresco
  * Repository. It interacts with the Alfresco Renditions API to retrieve, check, and create PDF renditions for documents.
+ *
+ * <p>Downloaded PDF renditions are kept in the {@link RenditionCache} for the current content version of the document,
+ * so the rendition is downloaded once for every task applied to the same content.
  */
 @Service
 public class RenditionService {
 
+    /**
+     * Property storing the version label of versionable documents.
+     */
+    static final String VERSION_LABEL_PROPERTY = "cm:versionLabel";
+
     /**
      * Autowired instance of {@link RenditionsApi} for communication with the Alfresco Renditions API.
      */
     @Autowired
     RenditionsApi renditionsApi;
 
+    /**
+     * Autowired instance of {@link NodesApi} for retrieving the documents and their content version.
+     */
+    @Autowired
+    NodesApi nodesApi;
+
+    /**
+     * Autowired instance of {@link ContentService} for streaming the content of PDF renditions to disk.
+     */
+    @Autowired
+    ContentService contentService;
+
+    /**
+     * Autowired instance of {@link RenditionCache} for reusing the PDF renditions already downloaded.
+     */
+    @Autowired
+    RenditionCache renditionCache;
+
+    /**
+     * Checks if the downloaded PDF renditions are cached, so the document node is required to get its content version.
+     *
+     * @return {@code true} if the rendition cache is enabled, {@code false} otherwise.
+     */
+    public boolean isCacheEnabled() {
+        return renditionCache.isEnabled();
+    }
+
     /**
      * Retrieves the content of the PDF rendition for the document identified by its UUID.
      *
      * @param uuid The unique identifier of the document.
+     * @param node The document node already retrieved by the caller, or {@code null} to retrieve it when the rendition
+     *             cache is enabled.
      * @return A {@link File} object representing the PDF rendition content.
      * @throws IOException If an I/O error occurs during the retrieval of the PDF rendition content.
      */
-    public File getRenditionContent(String uuid) throws IOException {
-        byte[] pdfFileContent =
-                renditionsApi.getRenditionContent(uuid, "pdf",
-                        false, null, null, null).getBody().getContentAsByteArray();
-        File pdfFile = Files.createTempFile(null, null).toFile();
-        Files.write(pdfFile.toPath(), pdfFileContent);
+    public File getRenditionContent(String uuid, Node node) throws IOException {
+        String version = renditionCache.isEnabled() ? getContentVersion(node != null ? node : getNode(uuid)) : null;
+        if (version != null) {
+            File cachedFile = renditionCache.get(uuid, version);
+            if (cachedFile != null) {
+                return cachedFile;
+            }
+        }
+        File pdfFile = contentService.getRenditionContent(uuid, "pdf");
+        if (version != null) {
+            renditionCache.put(uuid, version, pdfFile);
+        }
         return pdfFile;
     }
 
+    /**
+     * Opens the content of the PDF rendition for the document identified by its UUID as a stream, bypassing the
+     * {@link RenditionCache}.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return A {@link ContentStream} with the PDF rendition content, to be closed by the caller.
+     * @throws IOException If an I/O error occurs while opening the PDF rendition content.
+     */
+    public ContentStream openRenditionContent(String uuid) throws IOException {
+        return contentService.openRenditionContent(uuid, "pdf");
+    }
+
+    /**
+     * Gets the version of the content of a document already retrieved from the repository: the version label for
+     * versionable documents, or the MIME type and size of the content otherwise. Neither is changed by property
+     * updates, such as a new question or the results written by the listener. A content replaced by another one of the
+     * same type and size is detected through its content update event, which invalidates the {@link RenditionCache}
+     * and the tasks recorded for the document.
+     *
+     * @param node The document node, including its properties.
+     * @return The content version.
+     */
+    public static String getContentVersion(Node node) {
+        if (isVersioned(node)) {
+            return getProperties(node).get(VERSION_LABEL_PROPERTY).toString();
+        }
+        ContentInfo content = node.getContent();
+        return content != null ? content.getMimeType() + ":" + content.getSizeInBytes()
+                : String.valueOf(node.getModifiedAt());
+    }
+
+    /**
+     * Checks if the content version of a document is a version label rather than the type and size of its content.
+     *
+     * @param node The document node, including its properties.
+     * @return {@code true} if the document has a version label, {@code false} otherwise.
+     */
+    public static boolean isVersioned(Node node) {
+        return getProperties(node).get(VERSION_LABEL_PROPERTY) != null;
+    }
+
+    /**
+     * Gets the properties of a node, or an empty map if the node has none.
+     *
+     * @param node The node.
+     * @return The properties of the node.
+     */
+    public static Map<?, ?> getProperties(Node node) {
+        Map<?, ?> properties = (Map<?, ?>) node.getProperties();
+        return properties != null ? properties : Map.of();
+    }
+
+    /**
+     * Retrieves a document node with its properties.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return The document node.
+     */
+    public Node getNode(String uuid) {
+        return nodesApi.getNode(uuid, null, null, null).getBody().getEntry();
+    }
+
     /**
      * Checks if a PDF rendition has been created for the document identified by its UUID.
      *
@@ -0,0 +1,116 @@
+package org.alfresco.genai.service;
+
+import feign.FeignException;
+import feign.RetryableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code RetryPolicy} class is a Spring component that decides whether a failed GenAI request is worth retrying
+ * and how long to wait before the next attempt.
+ *
+ * <p>Transient failures are timeouts, connection errors (refused or reset connections, unreachable hosts), responses
+ * with a 5xx, 408 or 429 status, either from the GenAI service or from the Alfresco Repository, requests rejected by a
+ * full {@link Bulkhead} or an open {@link CircuitBreaker} and contents that could not be downloaded because the
+ * {@link ScratchSpace} was full. Any other failure, such as a 4xx response, is considered permanent, since retrying the
+ * same request would fail again.
+ *
+ * <p>The delay grows exponentially with the attempt number up to a maximum, and it is jittered to spread the retries
+ * of the documents that failed together during an outage.
+ */
+@Component
+public class RetryPolicy {
+
+    /**
+     * Maximum number of attempts for a task, including the first one, obtained from configuration.
+     */
+    @Value("${genai.retry.max.attempts}")
+    int maxAttempts;
+
+    /**
+     * Delay in seconds before the first retry obtained from configuration.
+     */
+    @Value("${genai.retry.initial.delay}")
+    long initialDelay;
+
+    /**
+     * Maximum delay in seconds between retries obtained from configuration.
+     */
+    @Value("${genai.retry.max.delay}")
+    long maxDelay;
+
+    /**
+     * Checks if a failure is transient, so the request may succeed when retried later.
+     *
+     * @param failure The failure.
+     * @return {@code true} if the failure is transient, {@code false} otherwise.
+     */
+    public boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GenAiResponseException responseException) {
+                int statusCode = responseException.getStatusCode();
+                return statusCode >= 500 || statusCode == 408 || statusCode == 429;
+            }
+            if (cause instanceof RetryableException) {
+                return true;
+            }
+            if (cause instanceof FeignException feignException) {
+                int status = feignException.status();
+                return status >= 500 || status == 408 || status == 429;
+            }
+            if (cause instanceof InterruptedIOException
+                    || cause instanceof SocketException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof EOFException
+                    || cause instanceof BulkheadFullException
+                    || cause instanceof CircuitBreakerOpenException
+                    || cause instanceof ScratchSpaceFullException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a task failed on the given attempt should be retried.
+     *
+     * @param failure The failure.
+     * @param attempt The number of the failed attempt, starting with 1.
+     * @return {@code true} if the task should be retried, {@code false} otherwise.
+     */
+    public boolean shouldRetry(Throwable failure, int attempt) {
+        return attempt < maxAttempts && isTransient(failure);
+    }
+
+    /**
+     * Computes the delay before retrying a task failed on the given attempt: the exponential delay is capped to the
+     * maximum delay, and a random jitter of up to half the delay is subtracted.
+     *
+     * @param attempt The number of the failed attempt, starting with 1.
+     * @return The delay in milliseconds.
+     */
+    public long getDelay(int attempt) {
+        long initial = TimeUnit.SECONDS.toMillis(initialDelay);
+        long max = TimeUnit.SECONDS.toMillis(maxDelay);
+        long delay = initial << Math.min(Math.max(attempt - 1, 0), 20);
+        delay = Math.min(delay, max);
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Gets the maximum number of attempts for a task.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+}
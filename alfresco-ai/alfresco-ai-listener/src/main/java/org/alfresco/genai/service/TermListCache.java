@@ -0,0 +1,185 @@
+package org.alfresco.genai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code TermListCache} class is a Spring service that keeps in memory the primary parent of the classified
+ * documents and the list of terms of every parent folder, so documents sharing a folder are classified without
+ * reading the folder from the Alfresco Repository again.
+ *
+ * <p>Entries expire after a configured time, and they are invalidated as soon as the terms of a folder change or a
+ * document is moved. Values loaded while an invalidation happens are not stored, so a lookup racing with a change never
+ * keeps the previous terms. The cache is bounded by number of entries, evicting the least recently used.
+ */
+@Service
+public class TermListCache {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(TermListCache.class);
+
+    /**
+     * Whether term lists are cached obtained from configuration.
+     */
+    @Value("${genai.terms.cache.enabled}")
+    boolean enabled;
+
+    /**
+     * Time in seconds an entry is kept in the cache obtained from configuration.
+     */
+    @Value("${genai.terms.cache.ttl}")
+    long ttl;
+
+    /**
+     * Maximum number of entries of every map of the cache obtained from configuration.
+     */
+    @Value("${genai.terms.cache.max.entries}")
+    int maxEntries;
+
+    /**
+     * Primary parent folder indexed by document UUID, in access order.
+     */
+    final LinkedHashMap<String, Entry> parents = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Term list indexed by folder UUID, in access order.
+     */
+    final LinkedHashMap<String, Entry> termLists = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Number of invalidations so far, used to discard the values loaded before an invalidation.
+     */
+    long generation;
+
+    /**
+     * Checks if term lists are cached.
+     *
+     * @return {@code true} if the cache is enabled, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the current generation of the cache, to be passed when storing a value loaded afterwards.
+     *
+     * @return The generation.
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the cached primary parent of a document.
+     *
+     * @param uuid The unique identifier of the document.
+     * @return The unique identifier of the parent folder, or {@code null} if it is not cached.
+     */
+    public synchronized String getParentId(String uuid) {
+        return get(parents, uuid);
+    }
+
+    /**
+     * Stores the primary parent of a document, unless the cache has been invalidated since the value was loaded.
+     *
+     * @param uuid       The unique identifier of the document.
+     * @param parentId   The unique identifier of the parent folder.
+     * @param generation The generation of the cache before the value was loaded.
+     */
+    public synchronized void putParentId(String uuid, String parentId, long generation) {
+        put(parents, uuid, parentId, generation);
+    }
+
+    /**
+     * Gets the cached term list of a folder.
+     *
+     * @param parentId The unique identifier of the folder.
+     * @return The term list, or {@code null} if it is not cached.
+     */
+    public synchronized String getTermList(String parentId) {
+        return get(termLists, parentId);
+    }
+
+    /**
+     * Stores the term list of a folder, unless the cache has been invalidated since the value was loaded.
+     *
+     * @param parentId   The unique identifier of the folder.
+     * @param termList   The term list.
+     * @param generation The generation of the cache before the value was loaded.
+     */
+    public synchronized void putTermList(String parentId, String termList, long generation) {
+        put(termLists, parentId, termList, generation);
+    }
+
+    /**
+     * Removes the cached term list of a folder and the cached primary parent of a document, usually because the terms
+     * have changed or the document has been moved.
+     *
+     * @param uuid The unique identifier of the folder or the document.
+     */
+    public synchronized void invalidate(String uuid) {
+        generation++;
+        boolean removed = termLists.remove(uuid) != null;
+        removed |= parents.remove(uuid) != null;
+        if (removed) {
+            LOG.debug("Cached term list of node {} has been invalidated", uuid);
+        }
+    }
+
+    /**
+     * Gets the number of cached term lists.
+     *
+     * @return The number of term lists.
+     */
+    public synchronized int getEntryCount() {
+        return termLists.size();
+    }
+
+    /**
+     * Gets the value of an entry, removing it when it has expired.
+     */
+    String get(LinkedHashMap<String, Entry> entries, String key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores the value of an entry and evicts the least recently used entries when the map is full.
+     */
+    void put(LinkedHashMap<String, Entry> entries, String key, String value, long loadedGeneration) {
+        if (!enabled || loadedGeneration != generation) {
+            return;
+        }
+        entries.put(key, new Entry(value, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttl)));
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (iterator.hasNext() && entries.size() > maxEntries) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * A cached value and the time in milliseconds when it expires.
+     */
+    record Entry(String value, long expiresAt) {
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.alfresco.genai.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link NodePartitioner}.
+ */
+class NodePartitionerTest {
+
+    /**
+     * Node UUIDs used to check the ownership.
+     */
+    static final List<String> NODES = IntStream.range(0, 3000)
+            .mapToObj(i -> UUID.nameUUIDFromBytes(("node-" + i).getBytes(StandardCharsets.UTF_8)).toString())
+            .toList();
+
+    /**
+     * Owns every node when no replica set is configured.
+     */
+    @Test
+    void ownsEveryNodeWithoutReplicas() {
+        NodePartitioner partitioner = partitioner("replica-1", " ");
+        assertTrue(NODES.stream().allMatch(partitioner::owns));
+    }
+
+    /**
+     * Refuses to start when this replica is not one of the configured replicas.
+     */
+    @Test
+    void rejectsUnknownReplica() {
+        assertThrows(IllegalStateException.class, () -> partitioner("replica-4", "replica-1", "replica-2"));
+    }
+
+    /**
+     * Assigns every node to exactly one replica, sharing the nodes evenly enough among them.
+     */
+    @Test
+    void assignsEveryNodeToOneReplica() {
+        String[] replicas = {"replica-1", "replica-2", "replica-3"};
+        List<NodePartitioner> partitioners = Arrays.stream(replicas)
+                .map(replica -> partitioner(replica, replicas))
+                .toList();
+        for (String node : NODES) {
+            assertEquals(1, partitioners.stream().filter(partitioner -> partitioner.owns(node)).count());
+        }
+        for (NodePartitioner partitioner : partitioners) {
+            long owned = NODES.stream().filter(partitioner::owns).count();
+            assertTrue(owned > NODES.size() / 5 && owned < NODES.size() / 2);
+        }
+    }
+
+    /**
+     * Keeps the nodes of the remaining replicas in place when a replica is removed.
+     */
+    @Test
+    void movesOnlyNodesOfRemovedReplica() {
+        NodePartitioner before = partitioner("replica-1", "replica-1", "replica-2", "replica-3");
+        NodePartitioner after = partitioner("replica-1", "replica-1", "replica-2");
+        assertTrue(NODES.stream().filter(before::owns).allMatch(after::owns));
+    }
+
+    /**
+     * Creates a partitioner for a replica among the given replicas, with 100 points per replica.
+     */
+    static NodePartitioner partitioner(String replica, String... replicas) {
+        NodePartitioner partitioner = new NodePartitioner();
+        partitioner.replica = replica;
+        partitioner.replicas = replicas;
+        partitioner.virtualNodes = 100;
+        partitioner.init();
+        return partitioner;
+    }
+
+}
@@ -0,0 +1,198 @@
+package org.alfresco.genai.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link FailedTaskStore}.
+ */
+class FailedTaskStoreTest {
+
+    /**
+     * Data folder holding the journal file.
+     */
+    @TempDir
+    Path dataDir;
+
+    /**
+     * The store under test.
+     */
+    FailedTaskStore store;
+
+    /**
+     * Creates an empty store.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        store = load();
+    }
+
+    /**
+     * Restores the retries and dead letters from the journal, with the priority of the failed job.
+     */
+    @Test
+    void replaysJournal() throws IOException {
+        store.retryLater(job("node-1", GenAiJob.Task.PROMPT, GenAiJob.Priority.INTERACTIVE).question("Why?"),
+                GenAiJob.Task.PROMPT, 1, 0, new IOException("timeout"));
+        store.deadLetter(job("node-2", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.SUMMARY, new IOException("bad request"));
+        store.retryLater(job("node-3", GenAiJob.Task.CLASSIFY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.CLASSIFY, 1, 0, new IOException("timeout"));
+        store.remove("node-3", GenAiJob.Task.CLASSIFY);
+
+        FailedTaskStore reloaded = load();
+        assertEquals(1, reloaded.getRetryCount());
+        assertEquals(1, reloaded.getDeadLetterCount());
+        assertFalse(reloaded.contains("node-3", GenAiJob.Task.CLASSIFY));
+        FailedTaskStore.FailedTask retry = reloaded.claimDueRetries(10).get(0);
+        assertEquals("node-1", retry.uuid());
+        assertEquals(GenAiJob.Priority.INTERACTIVE, retry.priority());
+        assertEquals("Why?", retry.question());
+        assertEquals(1, retry.attempts());
+    }
+
+    /**
+     * Reads the journal lines written without a priority with the backfill priority.
+     */
+    @Test
+    void readsLinesWithoutPriorityAsBackfill() throws IOException {
+        Files.writeString(dataDir.resolve(FailedTaskStore.JOURNAL_FILE),
+                "F node-1 SUMMARY 2 1 1  " + FailedTaskStore.encode("timeout") + "\n", StandardCharsets.UTF_8);
+        FailedTaskStore.FailedTask retry = load().claimDueRetries(10).get(0);
+        assertEquals(GenAiJob.Priority.BACKFILL, retry.priority());
+        assertEquals(2, retry.attempts());
+    }
+
+    /**
+     * Retries the tasks that were running when the listener stopped, without consuming the interrupted attempt.
+     */
+    @Test
+    void retriesRunningTasksAfterRestart() throws IOException {
+        store.running(job("node-1", GenAiJob.Task.DESCRIBE, GenAiJob.Priority.ENRICHMENT).attempt(2));
+
+        FailedTaskStore reloaded = load();
+        List<FailedTaskStore.FailedTask> due = reloaded.claimDueRetries(10);
+        assertEquals(1, due.size());
+        assertEquals(GenAiJob.Task.DESCRIBE, due.get(0).task());
+        assertEquals(1, due.get(0).attempts());
+        assertEquals(GenAiJob.Priority.ENRICHMENT, due.get(0).priority());
+    }
+
+    /**
+     * Keeps a claimed retry until its task completes, so a crash in between retries it again.
+     */
+    @Test
+    void keepsClaimedRetriesUntilCompleted() throws IOException {
+        store.retryLater(job("node-1", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.SUMMARY, 1, 0, new IOException("timeout"));
+        assertEquals(1, store.claimDueRetries(10).size());
+        assertEquals(0, store.getRetryCount());
+        assertTrue(store.claimDueRetries(10).isEmpty());
+
+        assertEquals(1, load().getRetryCount());
+
+        store.remove("node-1", GenAiJob.Task.SUMMARY);
+        assertEquals(0, load().getRetryCount());
+    }
+
+    /**
+     * Claims only the due retries, the oldest first, up to the maximum number of items.
+     */
+    @Test
+    void claimsDueRetriesOldestFirst() {
+        store.retryLater(job("node-1", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.SUMMARY, 1, -1000, new IOException("timeout"));
+        store.retryLater(job("node-2", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.SUMMARY, 1, -2000, new IOException("timeout"));
+        store.retryLater(job("node-3", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.SUMMARY, 1, 60000, new IOException("timeout"));
+
+        List<FailedTaskStore.FailedTask> due = store.claimDueRetries(1);
+        assertEquals(1, due.size());
+        assertEquals("node-2", due.get(0).uuid());
+        assertEquals("node-1", store.claimDueRetries(10).get(0).uuid());
+        assertEquals(1, store.getRetryCount());
+    }
+
+    /**
+     * Replays the dead letters as due retries with a restarted attempt count.
+     */
+    @Test
+    void replaysDeadLetters() {
+        store.deadLetter(job("node-1", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT).attempt(5),
+                GenAiJob.Task.SUMMARY, new IOException("timeout"));
+        store.deadLetter(job("node-2", GenAiJob.Task.CLASSIFY, GenAiJob.Priority.ENRICHMENT).attempt(5),
+                GenAiJob.Task.CLASSIFY, new IOException("timeout"));
+
+        assertEquals(1, store.replayDeadLetters(GenAiJob.Task.SUMMARY, 10));
+        FailedTaskStore.FailedTask replayed = store.claimDueRetries(10).get(0);
+        assertEquals("node-1", replayed.uuid());
+        assertEquals(0, replayed.attempts());
+        assertEquals(GenAiJob.Priority.BACKFILL, replayed.priority());
+        assertEquals(1, store.purgeDeadLetters(null));
+        assertEquals(0, store.getDeadLetterCount());
+    }
+
+    /**
+     * Compacts the journal only once the appended lines exceed both the minimum and the number of held tasks.
+     */
+    @Test
+    void compactsOnceJournalHasGrown() throws IOException {
+        store.compactLines = 4;
+        for (int i = 0; i < 3; i++) {
+            store.retryLater(job("node-1", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                    GenAiJob.Task.SUMMARY, i, 60000, new IOException("timeout"));
+        }
+        store.compactIfGrown();
+        assertEquals(3, journalLines());
+
+        store.deadLetter(job("node-2", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT),
+                GenAiJob.Task.SUMMARY, new IOException("bad request"));
+        store.compactIfGrown();
+        assertEquals(4, journalLines());
+
+        store.running(job("node-3", GenAiJob.Task.SUMMARY, GenAiJob.Priority.ENRICHMENT));
+        store.compactIfGrown();
+        assertEquals(3, journalLines());
+        FailedTaskStore reloaded = load();
+        assertEquals(2, reloaded.getRetryCount());
+        assertEquals(1, reloaded.getDeadLetterCount());
+    }
+
+    /**
+     * Creates a store loading the journal file of the data folder.
+     */
+    FailedTaskStore load() throws IOException {
+        FailedTaskStore failedTaskStore = new FailedTaskStore();
+        failedTaskStore.dataDir = dataDir.toString();
+        failedTaskStore.compactLines = 1000;
+        failedTaskStore.init();
+        return failedTaskStore;
+    }
+
+    /**
+     * Counts the lines of the journal file.
+     */
+    long journalLines() throws IOException {
+        return Files.readAllLines(dataDir.resolve(FailedTaskStore.JOURNAL_FILE), StandardCharsets.UTF_8).size();
+    }
+
+    /**
+     * Builds a job with a single task and the given priority.
+     */
+    static GenAiJob job(String uuid, GenAiJob.Task task, GenAiJob.Priority priority) {
+        return new GenAiJob().uuid(uuid).task(task).priority(priority);
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.alfresco.genai.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link IdempotencyLedger}.
+ */
+class IdempotencyLedgerTest {
+
+    /**
+     * Data folder holding the ledger file.
+     */
+    @TempDir
+    Path dataDir;
+
+    /**
+     * Checks a task against the fingerprint of the content it was completed on.
+     */
+    @Test
+    void matchesFingerprintOfCompletedTask() throws IOException {
+        IdempotencyLedger ledger = load(100, 3600);
+        String fingerprint = IdempotencyLedger.fingerprintVersion("1.0");
+        ledger.recordCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint);
+
+        assertTrue(ledger.isCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint));
+        assertFalse(ledger.isCompleted("node-1", GenAiJob.Task.CLASSIFY, fingerprint));
+        assertFalse(ledger.isCompleted("node-1", GenAiJob.Task.SUMMARY, IdempotencyLedger.fingerprintVersion("1.1")));
+    }
+
+    /**
+     * Includes the parameters of a task in its fingerprint.
+     */
+    @Test
+    void fingerprintsParameters() {
+        assertEquals(IdempotencyLedger.fingerprintVersion("1.0", "Term 1,Term 2"),
+                IdempotencyLedger.fingerprintVersion("1.0", "Term 1,Term 2"));
+        assertNotEquals(IdempotencyLedger.fingerprintVersion("1.0", "Term 1,Term 2"),
+                IdempotencyLedger.fingerprintVersion("1.0", "Term 1"));
+    }
+
+    /**
+     * Restores the completed tasks from the ledger file, without the invalidated ones.
+     */
+    @Test
+    void reloadsEntriesAndInvalidations() throws IOException {
+        IdempotencyLedger ledger = load(100, 3600);
+        String fingerprint = IdempotencyLedger.fingerprintVersion("1.0");
+        ledger.recordCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint);
+        ledger.recordCompleted("node-1", GenAiJob.Task.CLASSIFY, fingerprint);
+        ledger.recordCompleted("node-2", GenAiJob.Task.SUMMARY, fingerprint);
+        ledger.invalidate("node-1");
+        assertFalse(ledger.isCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint));
+
+        IdempotencyLedger reloaded = load(100, 3600);
+        assertFalse(reloaded.isCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint));
+        assertFalse(reloaded.isCompleted("node-1", GenAiJob.Task.CLASSIFY, fingerprint));
+        assertTrue(reloaded.isCompleted("node-2", GenAiJob.Task.SUMMARY, fingerprint));
+        assertEquals(1, Files.readAllLines(dataDir.resolve(IdempotencyLedger.LEDGER_FILE), StandardCharsets.UTF_8)
+                .size());
+    }
+
+    /**
+     * Evicts the oldest entries once the maximum number of entries is exceeded.
+     */
+    @Test
+    void evictsOldestEntries() throws IOException {
+        IdempotencyLedger ledger = load(2, 3600);
+        String fingerprint = IdempotencyLedger.fingerprintVersion("1.0");
+        ledger.recordCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint);
+        ledger.recordCompleted("node-2", GenAiJob.Task.SUMMARY, fingerprint);
+        ledger.recordCompleted("node-3", GenAiJob.Task.SUMMARY, fingerprint);
+
+        assertFalse(ledger.isCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint));
+        assertTrue(ledger.isCompleted("node-3", GenAiJob.Task.SUMMARY, fingerprint));
+        assertFalse(load(2, 3600).isCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint));
+    }
+
+    /**
+     * Ignores the completed tasks older than the time to live.
+     */
+    @Test
+    void expiresEntries() throws IOException {
+        String fingerprint = IdempotencyLedger.fingerprintVersion("1.0");
+        long expired = System.currentTimeMillis() - 7200_000;
+        Files.writeString(dataDir.resolve(IdempotencyLedger.LEDGER_FILE),
+                String.join(" ", "node-1", "SUMMARY", fingerprint, String.valueOf(expired)) + "\n",
+                StandardCharsets.UTF_8);
+
+        assertFalse(load(100, 3600).isCompleted("node-1", GenAiJob.Task.SUMMARY, fingerprint));
+    }
+
+    /**
+     * Creates an enabled ledger loading the ledger file of the data folder.
+     */
+    IdempotencyLedger load(int maxEntries, long ttl) throws IOException {
+        IdempotencyLedger ledger = new IdempotencyLedger();
+        ledger.enabled = true;
+        ledger.maxEntries = maxEntries;
+        ledger.ttl = ttl;
+        ledger.dataDir = dataDir.toString();
+        ledger.init();
+        return ledger;
+    }
+
+}
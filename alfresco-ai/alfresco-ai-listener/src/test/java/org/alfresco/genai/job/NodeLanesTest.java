@@ -0,0 +1,94 @@
+package org.alfresco.genai.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link NodeLanes}.
+ */
+class NodeLanesTest {
+
+    /**
+     * Runs the jobs of different nodes in parallel.
+     */
+    @Test
+    void runsDifferentNodesInParallel() {
+        NodeLanes nodeLanes = new NodeLanes(1);
+        assertTrue(nodeLanes.acquire(job("node-1")));
+        assertTrue(nodeLanes.acquire(job("node-2")));
+        assertEquals(0, nodeLanes.getParkedCount());
+    }
+
+    /**
+     * Parks the jobs of a busy node and hands the lane over to them in arrival order.
+     */
+    @Test
+    void handsLaneOverInArrivalOrder() {
+        NodeLanes nodeLanes = new NodeLanes(4);
+        GenAiJob running = job("node-1");
+        GenAiJob second = job("node-1");
+        GenAiJob third = job("node-1");
+        assertTrue(nodeLanes.acquire(running));
+        assertFalse(nodeLanes.acquire(second));
+        assertFalse(nodeLanes.acquire(third));
+        assertEquals(2, nodeLanes.getParkedCount());
+
+        assertSame(second, nodeLanes.release("node-1"));
+        assertEquals(1, nodeLanes.getParkedCount());
+        assertSame(third, nodeLanes.release("node-1"));
+        assertNull(nodeLanes.release("node-1"));
+        assertEquals(0, nodeLanes.getParkedCount());
+    }
+
+    /**
+     * Lets the requeued job holding the lane run, while other jobs of the node taken in the meantime are parked.
+     */
+    @Test
+    void runsRequeuedHolderWithoutParkingIt() {
+        NodeLanes nodeLanes = new NodeLanes(4);
+        GenAiJob running = job("node-1");
+        GenAiJob handedOver = job("node-1");
+        GenAiJob later = job("node-1");
+        nodeLanes.acquire(running);
+        nodeLanes.acquire(handedOver);
+        assertSame(handedOver, nodeLanes.release("node-1"));
+
+        assertFalse(nodeLanes.acquire(later));
+        assertTrue(nodeLanes.acquire(handedOver));
+        assertSame(later, nodeLanes.release("node-1"));
+        assertTrue(nodeLanes.acquire(later));
+        assertNull(nodeLanes.release("node-1"));
+        assertTrue(nodeLanes.acquire(job("node-1")));
+    }
+
+    /**
+     * Drains the parked jobs while the lanes stay held by their running jobs.
+     */
+    @Test
+    void drainsParkedJobs() {
+        NodeLanes nodeLanes = new NodeLanes(4);
+        nodeLanes.acquire(job("node-1"));
+        GenAiJob parked = job("node-1");
+        nodeLanes.acquire(parked);
+
+        List<GenAiJob> drained = nodeLanes.drain();
+        assertEquals(List.of(parked), drained);
+        assertEquals(0, nodeLanes.getParkedCount());
+        assertFalse(nodeLanes.acquire(job("node-1")));
+    }
+
+    /**
+     * Builds a job summarizing a node.
+     */
+    static GenAiJob job(String uuid) {
+        return new GenAiJob().uuid(uuid).task(GenAiJob.Task.SUMMARY);
+    }
+
+}
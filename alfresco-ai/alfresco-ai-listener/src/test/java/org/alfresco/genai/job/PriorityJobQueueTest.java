@@ -0,0 +1,136 @@
+package org.alfresco.genai.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link PriorityJobQueue}.
+ */
+class PriorityJobQueueTest {
+
+    /**
+     * Every priority.
+     */
+    static final Set<GenAiJob.Priority> ALL = EnumSet.allOf(GenAiJob.Priority.class);
+
+    /**
+     * Serves every lane in proportion to its weight while all of them hold jobs.
+     */
+    @Test
+    void servesLanesByWeight() throws InterruptedException {
+        PriorityJobQueue queue = new PriorityJobQueue(100, new int[] {6, 3, 1}, 3600);
+        for (int i = 0; i < 10; i++) {
+            for (GenAiJob.Priority priority : ALL) {
+                queue.put(job("node-" + priority + "-" + i, priority));
+            }
+        }
+        Map<GenAiJob.Priority, Integer> served = new EnumMap<>(GenAiJob.Priority.class);
+        for (int i = 0; i < 10; i++) {
+            served.merge(queue.take(ALL).getPriority(), 1, Integer::sum);
+        }
+        assertEquals(6, served.get(GenAiJob.Priority.INTERACTIVE));
+        assertEquals(3, served.get(GenAiJob.Priority.ENRICHMENT));
+        assertEquals(1, served.get(GenAiJob.Priority.BACKFILL));
+        assertEquals(20, queue.size());
+    }
+
+    /**
+     * Serves the jobs of a lane in arrival order.
+     */
+    @Test
+    void servesLaneInArrivalOrder() throws InterruptedException {
+        PriorityJobQueue queue = new PriorityJobQueue(10, new int[] {6, 3, 1}, 3600);
+        GenAiJob first = job("node-1", GenAiJob.Priority.ENRICHMENT);
+        GenAiJob second = job("node-2", GenAiJob.Priority.ENRICHMENT);
+        queue.put(first);
+        queue.put(second);
+        assertSame(first, queue.take(ALL));
+        assertSame(second, queue.take(ALL));
+    }
+
+    /**
+     * Serves a job that waited longer than the maximum wait before the jobs of a heavier lane.
+     */
+    @Test
+    void servesStarvingJobFirst() throws InterruptedException {
+        PriorityJobQueue queue = new PriorityJobQueue(10, new int[] {100, 10, 1}, 0);
+        GenAiJob backfill = job("node-1", GenAiJob.Priority.BACKFILL);
+        queue.put(backfill);
+        Thread.sleep(10);
+        queue.put(job("node-2", GenAiJob.Priority.INTERACTIVE));
+        queue.put(job("node-3", GenAiJob.Priority.INTERACTIVE));
+        assertSame(backfill, queue.take(ALL));
+    }
+
+    /**
+     * Serves only the allowed priorities, even when other lanes hold older jobs.
+     */
+    @Test
+    void servesAllowedPrioritiesOnly() throws InterruptedException {
+        PriorityJobQueue queue = new PriorityJobQueue(10, new int[] {6, 3, 1}, 0);
+        queue.put(job("node-1", GenAiJob.Priority.BACKFILL));
+        Thread.sleep(10);
+        GenAiJob interactive = job("node-2", GenAiJob.Priority.INTERACTIVE);
+        queue.put(interactive);
+        assertSame(interactive, queue.take(EnumSet.of(GenAiJob.Priority.INTERACTIVE)));
+        assertEquals(1, queue.size(GenAiJob.Priority.BACKFILL));
+    }
+
+    /**
+     * Puts a requeued job at the head of its lane, even when the queue is full.
+     */
+    @Test
+    void requeuesAtHeadBeyondCapacity() throws InterruptedException {
+        PriorityJobQueue queue = new PriorityJobQueue(1, new int[] {6, 3, 1}, 3600);
+        queue.put(job("node-1", GenAiJob.Priority.ENRICHMENT));
+        GenAiJob requeued = job("node-2", GenAiJob.Priority.ENRICHMENT);
+        assertTrue(queue.requeue(requeued));
+        assertEquals(2, queue.size());
+        assertSame(requeued, queue.take(ALL));
+    }
+
+    /**
+     * Releases the waiting callers once closed, refuses requeued jobs and keeps the queued jobs to be drained.
+     */
+    @Test
+    void closeReleasesWaitingCallers() throws InterruptedException {
+        PriorityJobQueue queue = new PriorityJobQueue(10, new int[] {6, 3, 1}, 3600);
+        queue.put(job("node-1", GenAiJob.Priority.BACKFILL));
+        GenAiJob[] taken = new GenAiJob[] {job("placeholder", GenAiJob.Priority.INTERACTIVE)};
+        Thread waiting = new Thread(() -> {
+            try {
+                taken[0] = queue.take(EnumSet.of(GenAiJob.Priority.INTERACTIVE));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        queue.close();
+        waiting.join(5000);
+        assertFalse(waiting.isAlive());
+        assertNull(taken[0]);
+        assertFalse(queue.requeue(job("node-2", GenAiJob.Priority.ENRICHMENT)));
+        List<GenAiJob> drained = queue.drain();
+        assertEquals(1, drained.size());
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * Builds a job summarizing a node with the given priority.
+     */
+    static GenAiJob job(String uuid, GenAiJob.Priority priority) {
+        return new GenAiJob().uuid(uuid).task(GenAiJob.Task.SUMMARY).priority(priority);
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.alfresco.genai.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+class CircuitBreakerTest {
+
+    /**
+     * Stays closed until the minimum number of requests has been recorded.
+     */
+    @Test
+    void staysClosedBelowMinimumCalls() throws CircuitBreakerOpenException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("summary", 10, 5, 50, 60);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.acquirePermission();
+            circuitBreaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    /**
+     * Opens once the failure rate of the window reaches the threshold, rejecting requests while open.
+     */
+    @Test
+    void opensAtFailureRateThreshold() throws CircuitBreakerOpenException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("summary", 4, 4, 50, 60);
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+        assertEquals(1, circuitBreaker.getNotPermitted());
+    }
+
+    /**
+     * Allows a single probe once the open duration has elapsed, and closes when the probe succeeds.
+     */
+    @Test
+    void closesWhenHalfOpenProbeSucceeds() throws CircuitBreakerOpenException {
+        CircuitBreaker circuitBreaker = open();
+        circuitBreaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0.0, circuitBreaker.getFailureRate());
+        circuitBreaker.acquirePermission();
+    }
+
+    /**
+     * Opens again when the half-open probe fails.
+     */
+    @Test
+    void reopensWhenHalfOpenProbeFails() throws CircuitBreakerOpenException {
+        CircuitBreaker circuitBreaker = open();
+        circuitBreaker.acquirePermission();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+    }
+
+    /**
+     * Allows another probe when the half-open probe was not performed.
+     */
+    @Test
+    void releasesIgnoredProbe() throws CircuitBreakerOpenException {
+        CircuitBreaker circuitBreaker = open();
+        circuitBreaker.acquirePermission();
+        circuitBreaker.onIgnored();
+        circuitBreaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    /**
+     * Builds a circuit breaker opened long enough ago for its open duration to have elapsed.
+     */
+    static CircuitBreaker open() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("summary", 2, 2, 50, 60);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        circuitBreaker.openedAt -= circuitBreaker.openDuration;
+        return circuitBreaker;
+    }
+
+}
@@ -0,0 +1,215 @@
+package org.alfresco.genai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code ContentService} class is a Spring service that downloads the content and the renditions of nodes from the
+ * Alfresco Repository straight to temporary files of the {@link ScratchSpace}. The body of the response is streamed to
+ * disk through a fixed-size buffer, so the heap usage doesn't depend on the size of the documents or on the number of
+ * concurrent downloads.
+ *
+ * <p>Contents can also be opened as a {@link ContentStream}, to be piped into a request to the GenAI service without
+ * being stored on disk.
+ *
+ * <p>The Alfresco REST API client decodes binary responses into byte arrays, so content is downloaded with an
+ * {@link OkHttpClient} using the same Alfresco Server URL and basic authentication credentials. The same client creates
+ * the tags of a node in a single request, using the list form of the Tags API that the REST API client doesn't expose.
+ */
+@Service
+public class ContentService {
+
+    /**
+     * Media type of the JSON request bodies.
+     */
+    static final MediaType JSON = MediaType.parse("application/json");
+
+    /**
+     * JSON writer for the request bodies.
+     */
+    static final ObjectMapper JSON_WRITER = new ObjectMapper();
+
+    /**
+     * The URL of the Alfresco Server obtained from configuration.
+     */
+    @Value("${content.service.url}")
+    String contentServiceUrl;
+
+    /**
+     * The path of the Alfresco REST API obtained from configuration.
+     */
+    @Value("${content.service.path}")
+    String contentServicePath;
+
+    /**
+     * The username for basic authentication with the Alfresco Server obtained from configuration.
+     */
+    @Value("${content.service.security.basicAuth.username}")
+    String username;
+
+    /**
+     * The password for basic authentication with the Alfresco Server obtained from configuration.
+     */
+    @Value("${content.service.security.basicAuth.password}")
+    String password;
+
+    /**
+     * Autowired instance of {@link ScratchSpace} for creating the temporary files.
+     */
+    @Autowired
+    ScratchSpace scratchSpace;
+
+    /**
+     * The OkHttpClient instance for downloading contents from the Alfresco Server.
+     */
+    OkHttpClient client;
+
+    /**
+     * Initializes the OkHttpClient with specified timeouts during bean creation.
+     */
+    @PostConstruct
+    public void init() {
+        client = new OkHttpClient()
+                .newBuilder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(120, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Downloads the content of the node identified by its UUID.
+     *
+     * @param uuid The unique identifier of the node.
+     * @return A temporary {@link File} with the content of the node.
+     * @throws IOException If an I/O error occurs or the Alfresco Server returns an error status.
+     */
+    public File getNodeContent(String uuid) throws IOException {
+        return download(openNodeContent(uuid));
+    }
+
+    /**
+     * Downloads the content of a rendition of the node identified by its UUID.
+     *
+     * @param uuid        The unique identifier of the node.
+     * @param renditionId The identifier of the rendition, such as "pdf".
+     * @return A temporary {@link File} with the content of the rendition.
+     * @throws IOException If an I/O error occurs or the Alfresco Server returns an error status.
+     */
+    public File getRenditionContent(String uuid, String renditionId) throws IOException {
+        return download(openRenditionContent(uuid, renditionId));
+    }
+
+    /**
+     * Opens the content of the node identified by its UUID as a stream.
+     *
+     * @param uuid The unique identifier of the node.
+     * @return A {@link ContentStream} with the content of the node, to be closed by the caller.
+     * @throws IOException If an I/O error occurs or the Alfresco Server returns an error status.
+     */
+    public ContentStream openNodeContent(String uuid) throws IOException {
+        return open(uuid, url()
+                .addPathSegments("nodes/" + uuid + "/content")
+                .addQueryParameter("attachment", "true")
+                .build());
+    }
+
+    /**
+     * Opens the content of a rendition of the node identified by its UUID as a stream.
+     *
+     * @param uuid        The unique identifier of the node.
+     * @param renditionId The identifier of the rendition, such as "pdf".
+     * @return A {@link ContentStream} with the content of the rendition, to be closed by the caller.
+     * @throws IOException If an I/O error occurs or the Alfresco Server returns an error status.
+     */
+    public ContentStream openRenditionContent(String uuid, String renditionId) throws IOException {
+        return open(uuid + "." + renditionId, url()
+                .addPathSegments("nodes/" + uuid + "/renditions/" + renditionId + "/content")
+                .addQueryParameter("attachment", "false")
+                .build());
+    }
+
+    /**
+     * Creates tags for the node identified by its UUID with a single request.
+     *
+     * @param uuid The unique identifier of the node.
+     * @param tags The tags to be created.
+     * @throws IOException If an I/O error occurs or the Alfresco Server returns an error status.
+     */
+    public void createTags(String uuid, List<String> tags) throws IOException {
+        List<Map<String, String>> tagBodies = tags.stream().map(tag -> Map.of("tag", tag)).toList();
+        HttpUrl url = url()
+                .addPathSegments("nodes/" + uuid + "/tags")
+                .build();
+        Request request = new Request
+                .Builder()
+                .url(url)
+                .header("Authorization", Credentials.basic(username, password))
+                .post(RequestBody.create(JSON_WRITER.writeValueAsString(tagBodies), JSON))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Error creating tags in " + url.encodedPath() + ": " + response.code() + " "
+                        + response.message());
+            }
+        }
+    }
+
+    /**
+     * Builds the base URL of the Alfresco REST API.
+     */
+    HttpUrl.Builder url() {
+        return HttpUrl.parse(contentServiceUrl + contentServicePath).newBuilder();
+    }
+
+    /**
+     * Sends a GET request and returns the body of the response as a stream.
+     */
+    ContentStream open(String name, HttpUrl url) throws IOException {
+        Request request = new Request
+                .Builder()
+                .url(url)
+                .header("Authorization", Credentials.basic(username, password))
+                .get()
+                .build();
+        Response response = client.newCall(request).execute();
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new IOException("Error downloading " + url.encodedPath() + ": " + response.code() + " "
+                    + response.message());
+        }
+        return new ContentStream(name, response);
+    }
+
+    /**
+     * Streams a content to a temporary file of the current {@link ScratchSpace} scope.
+     */
+    File download(ContentStream contentStream) throws IOException {
+        try (contentStream) {
+            File file = scratchSpace.createFile();
+            try (InputStream in = contentStream.response.body().byteStream()) {
+                Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file;
+        }
+    }
+
+}
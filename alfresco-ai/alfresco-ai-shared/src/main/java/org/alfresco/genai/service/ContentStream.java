@@ -0,0 +1,101 @@
+package org.alfresco.genai.service;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+
+/**
+ * The {@code ContentStream} class holds an open download of a content or a rendition from the Alfresco Repository, so
+ * it can be piped into a request to the GenAI service without being stored in a temporary file. Downloading and
+ * uploading overlap, and only the buffer of the pipe is kept in memory.
+ *
+ * <p>The content can be read only once, and the stream must be closed to release the connection to the Alfresco
+ * Server.
+ */
+public class ContentStream implements AutoCloseable {
+
+    /**
+     * Name of the content, sent as the file name of the upload.
+     */
+    final String name;
+
+    /**
+     * The response of the Alfresco Server, with the content as body.
+     */
+    final Response response;
+
+    /**
+     * Creates a stream for the body of a successful response of the Alfresco Server.
+     *
+     * @param name     Name of the content.
+     * @param response The response of the Alfresco Server.
+     */
+    ContentStream(String name, Response response) {
+        this.name = name;
+        this.response = response;
+    }
+
+    /**
+     * Gets the name of the content.
+     *
+     * @return The name of the content.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the size of the content declared by the Alfresco Server.
+     *
+     * @return The size in bytes, or -1 if it is unknown.
+     */
+    public long getContentLength() {
+        return response.body().contentLength();
+    }
+
+    /**
+     * Creates a one-shot request body writing the content as it is downloaded.
+     *
+     * @param mediaType The media type of the content.
+     * @return The request body.
+     */
+    public RequestBody toRequestBody(MediaType mediaType) {
+        ResponseBody body = response.body();
+        return new RequestBody() {
+
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return body.contentLength();
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return true;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.writeAll(body.source());
+            }
+
+        };
+    }
+
+    /**
+     * Closes the download, releasing the connection to the Alfresco Server.
+     */
+    @Override
+    public void close() {
+        response.close();
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.alfresco.genai.service;
+
+import java.io.IOException;
+
+/**
+ * The {@code GenAiResponseException} is thrown when the GenAI service answers a request with an HTTP error status.
+ */
+public class GenAiResponseException extends IOException {
+
+    /**
+     * The HTTP status code of the response.
+     */
+    final int statusCode;
+
+    /**
+     * Creates the exception for the response of the given endpoint.
+     *
+     * @param endpoint   Name of the GenAI endpoint.
+     * @param statusCode HTTP status code of the response.
+     * @param message    HTTP status message of the response.
+     */
+    public GenAiResponseException(String endpoint, int statusCode, String message) {
+        super("GenAI endpoint " + endpoint + " returned HTTP " + statusCode + " " + message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Gets the HTTP status code of the response.
+     *
+     * @return The HTTP status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+}
@@ -0,0 +1,358 @@
+package org.alfresco.genai.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@code GenAiResultCache} class is a Spring service that keeps the responses of the GenAI service on disk,
+ * indexed by the SHA-256 hash of the content sent, the GenAI endpoint, the parameters of the request and the model.
+ * Byte-identical copies of a document (templates, forwarded attachments, re-uploads) are enriched with the cached
+ * response instead of running the LLM again.
+ *
+ * <p>The model of every endpoint is the one reported by the GenAI service in its responses, so the responses of a
+ * previous model are no longer reused once a response reports a new one. The models are stored next to the entries,
+ * so the entries are reused as soon as the application starts again; a model changed in the meantime is detected with
+ * the first response of the endpoint. Until an endpoint has responded once, its model is unknown and its requests are
+ * not looked up in the cache.
+ *
+ * <p>The cache is bounded by number of entries and by size, evicting the least recently used entries. The last access
+ * time of every entry is kept as the modification time of its file, so the eviction order survives restarts.
+ */
+@Service
+public class GenAiResultCache {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(GenAiResultCache.class);
+
+    /**
+     * Extension of the cache entry files.
+     */
+    static final String ENTRY_EXTENSION = ".json";
+
+    /**
+     * Name of the file storing the model of every endpoint in the cache folder.
+     */
+    static final String MODELS_FILE = "models.properties";
+
+    /**
+     * Whether GenAI responses are cached obtained from configuration.
+     */
+    @Value("${genai.cache.enabled}")
+    boolean enabled;
+
+    /**
+     * Folder to store the cache entries obtained from configuration.
+     */
+    @Value("${genai.cache.dir}")
+    String cacheDir;
+
+    /**
+     * Maximum number of cache entries obtained from configuration.
+     */
+    @Value("${genai.cache.max.entries}")
+    int maxEntries;
+
+    /**
+     * Maximum size in megabytes of the cache entries obtained from configuration.
+     */
+    @Value("${genai.cache.max.size}")
+    long maxSize;
+
+    /**
+     * Model reported by the GenAI service in the last response of every endpoint, indexed by endpoint.
+     */
+    final Map<String, String> models = new ConcurrentHashMap<>();
+
+    /**
+     * Size in bytes of the cache entries indexed by key, in access order.
+     */
+    final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Total size in bytes of the cache entries.
+     */
+    long size;
+
+    /**
+     * Path of the cache folder.
+     */
+    Path cachePath;
+
+    /**
+     * Loads the existing cache entries, the least recently used first, during bean creation.
+     *
+     * @throws IOException If the cache folder cannot be created or read.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        cachePath = Path.of(cacheDir);
+        Files.createDirectories(cachePath);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cachePath)) {
+            files = stream
+                    .filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION))
+                    .sorted(Comparator.comparing(GenAiResultCache::lastModified))
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long entrySize = Files.size(file);
+            entries.put(name.substring(0, name.length() - ENTRY_EXTENSION.length()), entrySize);
+            size += entrySize;
+        }
+        Path modelsPath = cachePath.resolve(MODELS_FILE);
+        if (Files.exists(modelsPath)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(modelsPath, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            properties.stringPropertyNames()
+                    .forEach(endpoint -> models.put(endpoint, properties.getProperty(endpoint)));
+        }
+        evict();
+        LOG.info("GenAI result cache loaded with {} entries for models {}", entries.size(), models);
+    }
+
+    /**
+     * Checks if GenAI responses are cached.
+     *
+     * @return {@code true} if the cache is enabled, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the model reported by the GenAI service for an endpoint.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @return The model, or {@code null} if the endpoint has not responded yet.
+     */
+    public String getModel(String endpoint) {
+        return models.get(endpoint);
+    }
+
+    /**
+     * Records the model reported by the GenAI service in a response of an endpoint, storing the models when it
+     * changes.
+     *
+     * @param endpoint The name of the GenAI endpoint.
+     * @param model    The model reported in the response.
+     */
+    public void setModel(String endpoint, String model) {
+        String previous = models.put(endpoint, model);
+        if (model.equals(previous)) {
+            return;
+        }
+        if (previous == null) {
+            LOG.info("GenAI endpoint {} reports model {}", endpoint, model);
+        } else {
+            LOG.info("GenAI endpoint {} reports model {} instead of {}, previous responses are no longer reused",
+                    endpoint, model, previous);
+        }
+        writeModels();
+    }
+
+    /**
+     * Computes the digest of a request from the content sent to the GenAI service, to be combined with the model into
+     * the cache key.
+     *
+     * @param content    The file sent to the GenAI service.
+     * @param endpoint   The name of the GenAI endpoint.
+     * @param parameters The parameters of the request, such as the question or the term list.
+     * @return The hexadecimal representation of the digest.
+     * @throws IOException If the file cannot be read.
+     */
+    public String digest(File content, String endpoint, String... parameters) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(content.toPath()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        digest.update((byte) 0);
+        digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+        for (String parameter : parameters) {
+            digest.update((byte) 0);
+            digest.update(String.valueOf(parameter).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Builds the cache key of a request from its digest and the model expected to produce the response.
+     *
+     * @param digest The digest of the request.
+     * @param model  The model of the endpoint.
+     * @return The hexadecimal representation of the key.
+     */
+    public String key(String digest, String model) {
+        MessageDigest keyDigest;
+        try {
+            keyDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        keyDigest.update(digest.getBytes(StandardCharsets.UTF_8));
+        keyDigest.update((byte) 0);
+        keyDigest.update(model.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(keyDigest.digest());
+    }
+
+    /**
+     * Gets a cached response, marking it as the most recently used.
+     *
+     * @param key The cache key.
+     * @return The cached response, or {@code null} if the response is not cached.
+     */
+    public synchronized String get(String key) {
+        if (!enabled || entries.get(key) == null) {
+            return null;
+        }
+        Path file = entryPath(key);
+        try {
+            String response = Files.readString(file, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return response;
+        } catch (IOException e) {
+            LOG.warn("Error reading GenAI result cache entry {}", file, e);
+            size -= entries.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a response, evicting the least recently used entries when the cache is full.
+     *
+     * @param key      The cache key.
+     * @param response The response of the GenAI service.
+     */
+    public synchronized void put(String key, String response) {
+        if (!enabled) {
+            return;
+        }
+        Path file = entryPath(key);
+        Path tmpFile = cachePath.resolve(key + ".tmp");
+        try {
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            Files.write(tmpFile, bytes);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previousSize = entries.put(key, (long) bytes.length);
+            size += bytes.length - (previousSize == null ? 0 : previousSize);
+            evict();
+        } catch (IOException e) {
+            LOG.warn("Error writing GenAI result cache entry {}", file, e);
+        }
+    }
+
+    /**
+     * Gets the number of cache entries.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total size of the cache entries.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Stores the model of every endpoint in the cache folder, replacing the previous file atomically.
+     */
+    synchronized void writeModels() {
+        if (!enabled) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(models);
+        Path modelsPath = cachePath.resolve(MODELS_FILE);
+        Path tmpFile = cachePath.resolve(MODELS_FILE + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(tmpFile, modelsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Error writing GenAI result cache models {}", modelsPath, e);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is within its bounds.
+     */
+    void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || size > maxSize * 1024 * 1024)) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            try {
+                Files.deleteIfExists(entryPath(eldest.getKey()));
+            } catch (IOException e) {
+                LOG.warn("Error deleting GenAI result cache entry {}", eldest.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the path of the file storing a cache entry.
+     */
+    Path entryPath(String key) {
+        return cachePath.resolve(key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Gets the modification time of a file, which records the last access to a cache entry.
+     */
+    static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.alfresco.genai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * The {@code PictureDownscaler} class is a Spring service that reduces the pictures sent to the describe endpoint of
+ * the GenAI service. Pictures larger than a maximum edge are downscaled and re-encoded as JPEG, so the upload, its
+ * base64 encoding for the vision model and the latency of the model shrink with the number of pixels.
+ *
+ * <p>Pictures are decoded with source subsampling to a size just above the maximum edge, so large camera pictures are
+ * never fully decoded in memory. Pictures already within the maximum edge, and pictures in a format that cannot be
+ * decoded, are sent unchanged. Downscaled pictures are written to temporary files of the {@link ScratchSpace}.
+ */
+@Service
+public class PictureDownscaler {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(PictureDownscaler.class);
+
+    /**
+     * Whether pictures are downscaled before describing them obtained from configuration.
+     */
+    @Value("${genai.describe.downscale.enabled}")
+    boolean enabled;
+
+    /**
+     * Maximum width and height in pixels of the pictures sent to the GenAI service obtained from configuration.
+     */
+    @Value("${genai.describe.downscale.max.edge}")
+    int maxEdge;
+
+    /**
+     * Quality of the JPEG encoding of the downscaled pictures, from 0 to 1, obtained from configuration.
+     */
+    @Value("${genai.describe.downscale.quality}")
+    float quality;
+
+    /**
+     * Autowired instance of {@link ScratchSpace} for creating the files of the downscaled pictures.
+     */
+    @Autowired
+    ScratchSpace scratchSpace;
+
+    /**
+     * Checks if pictures are downscaled before describing them.
+     *
+     * @return {@code true} if downscaling is enabled, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Downscales a picture to the maximum edge and re-encodes it as JPEG.
+     *
+     * @param pictureFile The original picture.
+     * @return A temporary file with the downscaled picture, or the original picture when it is within the maximum edge
+     *         or cannot be decoded.
+     * @throws IOException If the downscaled picture cannot be written.
+     */
+    public File downscale(File pictureFile) throws IOException {
+        if (!enabled) {
+            return pictureFile;
+        }
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(pictureFile)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                LOG.debug("Picture {} has a format that cannot be decoded, sending it unchanged", pictureFile.getName());
+                return pictureFile;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int edge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                if (edge <= maxEdge) {
+                    return pictureFile;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, edge / maxEdge);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Picture {} cannot be decoded, sending it unchanged", pictureFile.getName(), e);
+            return pictureFile;
+        }
+        File downscaledFile = scratchSpace.createFile();
+        writeJpeg(resize(image), downscaledFile);
+        LOG.debug("Picture {} has been downscaled from {} to {} bytes",
+                pictureFile.getName(), pictureFile.length(), downscaledFile.length());
+        return downscaledFile;
+    }
+
+    /**
+     * Scales a decoded picture so its longest edge matches the maximum edge, flattening transparency on white.
+     */
+    BufferedImage resize(BufferedImage image) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * Encodes a picture as JPEG with the configured quality.
+     */
+    void writeJpeg(BufferedImage image, File file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,323 @@
+package org.alfresco.genai.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@code RenditionCache} class is a Spring service that keeps the PDF renditions downloaded from the Alfresco
+ * Repository on disk, indexed by node UUID and content version, so the tasks applied to the same document (summary,
+ * classification and every new question) download its rendition only once.
+ *
+ * <p>A cached rendition is only served for the content version it was downloaded for, and it can be invalidated
+ * explicitly when the content of the node changes. The cache is bounded by size, evicting the least recently used
+ * renditions; the last access time of every rendition is kept as the modification time of its file, so the eviction
+ * order survives restarts.
+ *
+ * <p>Renditions are handed to callers as temporary files of the {@link ScratchSpace} linked to the cached file, so
+ * callers own the file they receive and evicting a rendition doesn't affect a task still reading it.
+ */
+@Service
+public class RenditionCache {
+
+    /**
+     * Logger for logging information and error messages.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(RenditionCache.class);
+
+    /**
+     * Extension of the cached rendition files.
+     */
+    static final String ENTRY_EXTENSION = ".pdf";
+
+    /**
+     * Whether PDF renditions are cached obtained from configuration.
+     */
+    @Value("${genai.rendition.cache.enabled}")
+    boolean enabled;
+
+    /**
+     * Folder to store the cached renditions obtained from configuration.
+     */
+    @Value("${genai.rendition.cache.dir}")
+    String cacheDir;
+
+    /**
+     * Maximum size in megabytes of the cached renditions obtained from configuration.
+     */
+    @Value("${genai.rendition.cache.max.size}")
+    long maxSize;
+
+    /**
+     * Autowired instance of {@link ScratchSpace} for creating the temporary files handed to callers.
+     */
+    @Autowired
+    ScratchSpace scratchSpace;
+
+    /**
+     * Cached renditions indexed by node UUID, in access order.
+     */
+    final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Total size in bytes of the cached renditions.
+     */
+    long size;
+
+    /**
+     * Path of the cache folder.
+     */
+    Path cachePath;
+
+    /**
+     * Loads the existing cached renditions, the least recently used first, during bean creation.
+     *
+     * @throws IOException If the cache folder cannot be created or read.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        cachePath = Path.of(cacheDir);
+        Files.createDirectories(cachePath);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cachePath)) {
+            files = stream
+                    .filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION))
+                    .sorted(Comparator.comparing(RenditionCache::lastModified))
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String[] name = file.getFileName().toString().replace(ENTRY_EXTENSION, "").split("_", 2);
+            if (name.length != 2) {
+                Files.delete(file);
+                continue;
+            }
+            Entry entry = new Entry(decode(name[1]), Files.size(file));
+            Entry previous = entries.put(name[0], entry);
+            size += entry.size();
+            if (previous != null) {
+                size -= previous.size();
+                Files.deleteIfExists(entryPath(name[0], previous.version()));
+            }
+        }
+        evict();
+        LOG.info("Rendition cache loaded with {} renditions", entries.size());
+    }
+
+    /**
+     * Checks if PDF renditions are cached.
+     *
+     * @return {@code true} if the cache is enabled, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the cached rendition of a node for the given content version, marking it as the most recently used.
+     *
+     * @param uuid    The unique identifier of the node.
+     * @param version The version of the content of the node.
+     * @return A temporary file with the content of the rendition, or {@code null} if the rendition of the content
+     *         version is not cached.
+     * @throws IOException If the temporary file cannot be created.
+     */
+    public File get(String uuid, String version) throws IOException {
+        if (!contains(uuid, version)) {
+            return null;
+        }
+        File target = scratchSpace.createFile();
+        synchronized (this) {
+            if (!contains(uuid, version)) {
+                return null;
+            }
+            Path file = entryPath(uuid, version);
+            try {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                link(file, target.toPath());
+                return target;
+            } catch (IOException e) {
+                LOG.warn("Error reading cached rendition {}", file, e);
+                remove(uuid);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Checks if the rendition of a node is cached for the given content version, marking it as the most recently
+     * used.
+     */
+    synchronized boolean contains(String uuid, String version) {
+        Entry entry = entries.get(uuid);
+        return enabled && entry != null && entry.version().equals(version);
+    }
+
+    /**
+     * Stores the rendition of a node for the given content version, replacing any rendition of a previous version
+     * and evicting the least recently used renditions when the cache is full.
+     *
+     * @param uuid    The unique identifier of the node.
+     * @param version The version of the content of the node.
+     * @param content The file with the content of the rendition.
+     */
+    public synchronized void put(String uuid, String version, File content) {
+        if (!enabled) {
+            return;
+        }
+        remove(uuid);
+        Path file = entryPath(uuid, version);
+        Path tmpFile = cachePath.resolve(uuid + ".tmp");
+        try {
+            Files.copy(content.toPath(), tmpFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Entry entry = new Entry(version, Files.size(file));
+            entries.put(uuid, entry);
+            size += entry.size();
+            evict();
+        } catch (IOException e) {
+            LOG.warn("Error writing cached rendition {}", file, e);
+        }
+    }
+
+    /**
+     * Removes the cached rendition of a node, usually because its content has changed.
+     *
+     * @param uuid The unique identifier of the node.
+     */
+    public synchronized void invalidate(String uuid) {
+        if (enabled && remove(uuid)) {
+            LOG.debug("Cached rendition of node {} has been invalidated", uuid);
+        }
+    }
+
+    /**
+     * Gets the number of cached renditions.
+     *
+     * @return The number of renditions.
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total size of the cached renditions.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Removes the cached rendition of a node and its file.
+     *
+     * @return {@code true} if a rendition was cached for the node, {@code false} otherwise.
+     */
+    boolean remove(String uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null) {
+            return false;
+        }
+        size -= entry.size();
+        delete(entryPath(uuid, entry.version()));
+        return true;
+    }
+
+    /**
+     * Removes the least recently used renditions until the cache is within its size bound.
+     */
+    void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && size > maxSize * 1024 * 1024) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue().size();
+            delete(entryPath(eldest.getKey(), eldest.getValue().version()));
+        }
+    }
+
+    /**
+     * Replaces a temporary file with the content of a cached rendition, as a hard link when the file system supports
+     * it or as a copy otherwise.
+     */
+    static void link(Path file, Path target) throws IOException {
+        Files.delete(target);
+        try {
+            Files.createLink(target, file);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(file, target);
+        }
+    }
+
+    /**
+     * Deletes the file of a cached rendition.
+     */
+    static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Error deleting cached rendition {}", file, e);
+        }
+    }
+
+    /**
+     * Gets the path of the file storing the rendition of a content version of a node.
+     */
+    Path entryPath(String uuid, String version) {
+        return cachePath.resolve(uuid + "_" + encode(version) + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Encodes a content version to be used in a file name.
+     */
+    static String encode(String version) {
+        return HexFormat.of().formatHex(version.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a content version from a file name.
+     */
+    static String decode(String value) {
+        return new String(HexFormat.of().parseHex(value), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the modification time of a file, which records the last access to a cached rendition.
+     */
+    static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * A cached rendition: the content version it was downloaded for and its size in bytes.
+     */
+    record Entry(String version, long size) {
+    }
+
+}
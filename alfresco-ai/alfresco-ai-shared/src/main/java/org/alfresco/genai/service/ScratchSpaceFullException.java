@@ -0,0 +1,21 @@
+package org.alfresco.genai.service;
+
+import java.io.IOException;
+
+/**
+ * The {@code ScratchSpaceFullException} is thrown when a temporary file cannot be created because the quota of the
+ * {@link ScratchSpace} is exceeded and no space has been released in time.
+ */
+public class ScratchSpaceFullException extends IOException {
+
+    /**
+     * Creates the exception for the used space and the quota.
+     *
+     * @param used  The used space in bytes.
+     * @param quota The quota in bytes.
+     */
+    public ScratchSpaceFullException(long used, long quota) {
+        super("Scratch space quota exceeded: " + used + " bytes used of " + quota);
+    }
+
+}
@@ -3,6 +3,7 @@ import base64
 import pycurl
 import json
 from io import BytesIO
+from typing import Optional
 from urllib.parse import urlencode
 
 import streamlit as st
@@ -119,21 +120,39 @@ async def describe(image: UploadFile):
     response = json.loads(buffer.getvalue().decode("utf-8"))
     return { "description": response["response"], "model": llm_vision_name }
 
+def getSummaryQuery():
+    return "Write a short summary of the text in " + summary_size + " words only in " + language
+
+def getTagsQuery():
+    return ("Provide " + tags_number + " words to categorize the document in language " + language + " in a single line. " +
+            "Use only language " + language + " for these " + tags_number + " words in the answer. " +
+            "Don't add any explanation for the words in the answer. " + 
+            "Don't add any note after the list of words in the answer. " +
+            "Don't use bullets or numbers to list the words in the answer. " +
+            "Don't add in the answer the translation of the words in a different language after the list of words. " +
+            "Give the answer exactly as a list of " + tags_number + " words in language " + language + " separated with comma and without ending dot.")
+
+def getTermQuery(termList: str):
+    return ("Pick one of the following list of categories: " + termList + ". " +
+            "Write the answer only in " + language + " language. " + 
+            "Don't add any explanation for the choice in the answer. " + 
+            "Don't add any note after the word in the answer. " +
+            "Don't add any space before the word in the answer. " +
+            "Don't add in the answer the translation of the word in a different language after chosen word. " +
+            "Give the answer exactly as a single word from the list.")
+
+def getPromptQuery(prompt: str):
+    return (prompt + 
+            ". Write the answer only in " + language + " language. " + 
+            "Don't add any translation to the answer.")
+
 @app.post("/classify")
 async def classify(file: UploadFile, termList: str):
 
     qa = getQa(file)
     stream_handler = StreamHandler(st.empty())
 
-    term_query = ("Pick one of the following list of categories: " + termList + ". " +
-              "Write the answer only in " + language + " language. " + 
-              "Don't add any explanation for the choice in the answer. " + 
-              "Don't add any note after the word in the answer. " +
-              "Don't add any space before the word in the answer. " +
-              "Don't add in the answer the translation of the word in a different language after chosen word. " +
-              "Give the answer exactly as a single word from the list.")
-
-    term = qa.run(term_query, callbacks=[stream_handler])
+    term = qa.run(getTermQuery(termList), callbacks=[stream_handler])
     return {"term": term, "model": llm_name}
 
 @app.post("/prompt")
@@ -142,11 +161,7 @@ async def prompt(file: UploadFile, prompt: str):
     qa = getQa(file)
     stream_handler = StreamHandler(st.empty())
 
-    prompt = (prompt + 
-              ". Write the answer only in " + language + " language. " + 
-              "Don't add any translation to the answer.")
-
-    answer = qa.run(prompt, callbacks=[stream_handler])
+    answer = qa.run(getPromptQuery(prompt), callbacks=[stream_handler])
     return {"answer": answer, "model": llm_name}
 
 @app.post("/summary")
@@ -155,16 +170,27 @@ async def summary(file: UploadFile):
     qa = getQa(file)
     stream_handler = StreamHandler(st.empty())
 
-    summary_query = "Write a short summary of the text in " + summary_size + " words only in " + language
-    summary_result = qa.run(summary_query, callbacks=[stream_handler])
-
-    tags_query = ("Provide " + tags_number + " words to categorize the document in language " + language + " in a single line. " +
-                 "Use only language " + language + " for these " + tags_number + " words in the answer. " +
-                 "Don't add any explanation for the words in the answer. " + 
-                 "Don't add any note after the list of words in the answer. " +
-                 "Don't use bullets or numbers to list the words in the answer. " +
-                 "Don't add in the answer the translation of the words in a different language after the list of words. " +
-                 "Give the answer exactly as a list of " + tags_number + " words in language " + language + " separated with comma and without ending dot.")
-    tags_result = qa.run(tags_query, callbacks=[stream_handler])
+    summary_result = qa.run(getSummaryQuery(), callbacks=[stream_handler])
+    tags_result = qa.run(getTagsQuery(), callbacks=[stream_handler])
 
     return {"summary": summary_result, "tags": tags_result, "model": llm_name}
+
+# Runs summary, classification and prompt on a single upload, extracting and embedding the text only once.
+# Every operation is optional: the summary is included when summary=true, the classification when termList
+# is provided and the answer when prompt is provided.
+@app.post("/enrich")
+async def enrich(file: UploadFile, summary: bool = False, termList: Optional[str] = None, prompt: Optional[str] = None):
+
+    qa = getQa(file)
+    stream_handler = StreamHandler(st.empty())
+
+    result = {"model": llm_name}
+    if summary:
+        result["summary"] = qa.run(getSummaryQuery(), callbacks=[stream_handler])
+        result["tags"] = qa.run(getTagsQuery(), callbacks=[stream_handler])
+    if termList:
+        result["term"] = qa.run(getTermQuery(termList), callbacks=[stream_handler])
+    if prompt:
+        result["answer"] = qa.run(getPromptQuery(prompt), callbacks=[stream_handler])
+
+    return result